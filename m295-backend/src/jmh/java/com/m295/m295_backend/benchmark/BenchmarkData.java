@@ -0,0 +1,74 @@
+package com.m295.m295_backend.benchmark;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.repository.CharakterNameView;
+import com.m295.m295_backend.repository.CharakterRepository;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetische Testdaten für die JMH-Benchmarks.
+ * Die Werte sind gültig für die Validierung im {@code CharakterService} und mit festem Seed reproduzierbar.
+ */
+final class BenchmarkData {
+
+    static final String[] STATUS = {"alive", "dead", "unknown"};
+    static final String[] GENDER = {"männlich", "weiblich", "geschlechtslos", "unbekannt"};
+    static final String[] SPECIES = {"mensch", "alien", "roboter", "tier", "mutant"};
+    static final String[] ORIGIN = {"erde (c-137)", "erde (ersatz-dimension)", "zitadelle der ricks",
+            "galaktisches föderationsgefängnis"};
+    private static final String[] NAMES = {"Rick", "Morty", "Summer", "Beth", "Jerry", "Birdperson",
+            "Squanchy", "Mr. Poopybutthole", "Unity", "Evil Morty"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Charakter> charaktere(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Charakter> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Charakter((long) i + 1, NAMES[random.nextInt(NAMES.length)] + " " + i,
+                    pick(random, STATUS), pick(random, GENDER), pick(random, ORIGIN), pick(random, SPECIES)));
+        }
+        return result;
+    }
+
+    static List<CharakterDTO> dtos(int size) {
+        return charaktere(size).stream()
+                .map(c -> new CharakterDTO(c.getId(), c.getName(), c.getStatus(), c.getGender(),
+                        c.getOrigin(), c.getSpecies()))
+                .toList();
+    }
+
+    /**
+     * Repository-Stub, der nur {@code findNamesAfter} (Aufbau des Namensindex) aus der Liste bedient.
+     */
+    static CharakterRepository nameRepository(List<Charakter> charaktere) {
+        return (CharakterRepository) Proxy.newProxyInstance(
+                CharakterRepository.class.getClassLoader(),
+                new Class<?>[]{CharakterRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findNamesAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    long after = (Long) args[0];
+                    int max = ((Limit) args[1]).max();
+                    int from = (int) Math.min(after, charaktere.size()); // IDs sind 1..n
+                    return charaktere.subList(from, Math.min(from + max, charaktere.size())).stream()
+                            .map(c -> (CharakterNameView) new NameView(c.getId(), c.getName()))
+                            .toList();
+                });
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private record NameView(Long getId, String getName) implements CharakterNameView {
+    }
+}
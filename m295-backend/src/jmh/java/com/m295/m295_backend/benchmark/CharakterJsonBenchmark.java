@@ -0,0 +1,69 @@
+package com.m295.m295_backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.m295.m295_backend.dto.CharakterDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst Serialisierung und Deserialisierung einer DTO-Liste mit Jackson, wie sie die Controller
+ * zurückgeben, für JSON und die binären Formate CBOR und Smile. Deserialisiert wird wie bei einem
+ * Client in einen Baum, da die DTOs keinen Default-Konstruktor haben. Die Payload-Grösse pro Format
+ * wird im Setup ausgegeben.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharakterJsonBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectMapper mapper;
+    private List<CharakterDTO> dtos;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = new ObjectMapper(factory(format));
+        CollectionType type = mapper.getTypeFactory().constructCollectionType(List.class, CharakterDTO.class);
+        writer = mapper.writerFor(type);
+        dtos = BenchmarkData.dtos(size);
+        payload = writer.writeValueAsBytes(dtos);
+        System.out.printf("%n%s, %d DTOs: %d Bytes (%.1f Bytes/DTO)%n",
+                format, size, payload.length, (double) payload.length / size);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public JsonNode deserialize() throws Exception {
+        return mapper.readTree(payload);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+}
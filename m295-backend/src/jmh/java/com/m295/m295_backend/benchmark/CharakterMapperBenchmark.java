@@ -0,0 +1,42 @@
+package com.m295.m295_backend.benchmark;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.dto.CharakterFormDTO;
+import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.mapper.CharakterMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst das Umwandeln von Entities in DTOs ({@code GET /all}, {@code /all/form}, Filter).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharakterMapperBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Charakter> charaktere;
+
+    @Setup
+    public void setup() {
+        charaktere = BenchmarkData.charaktere(size);
+    }
+
+    @Benchmark
+    public List<CharakterDTO> toDTOList() {
+        return CharakterMapper.toDTOList(charaktere);
+    }
+
+    @Benchmark
+    public List<CharakterFormDTO> toFormDTOList() {
+        return CharakterMapper.toFormDTOList(charaktere);
+    }
+}
@@ -0,0 +1,41 @@
+package com.m295.m295_backend.benchmark;
+
+import com.m295.m295_backend.service.CharakterNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Namenssuche ({@code /search/name}), die den früheren Stream-Filter ersetzt hat.
+ * {@code shortKeyword} hat weniger als drei Zeichen und läuft deshalb über alle Namen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharakterNameIndexBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private CharakterNameIndex index;
+
+    @Setup
+    public void setup() {
+        index = new CharakterNameIndex(BenchmarkData.nameRepository(BenchmarkData.charaktere(size)));
+        index.search("rick", 1); // Index aufbauen, nicht mitmessen
+    }
+
+    @Benchmark
+    public List<Long> trigramKeyword() {
+        return index.search("poopy", 50);
+    }
+
+    @Benchmark
+    public List<Long> shortKeyword() {
+        return index.search("ty", 50);
+    }
+}
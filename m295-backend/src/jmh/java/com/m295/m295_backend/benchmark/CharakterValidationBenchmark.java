@@ -0,0 +1,50 @@
+package com.m295.m295_backend.benchmark;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.service.CharakterService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Validierung von Status, Geschlecht, Spezies und Herkunft in {@link CharakterService}.
+ *
+ * <p>
+ * Die Validatoren sind privat. Gemessen wird deshalb {@code createCharaktere} mit einer Liste,
+ * deren letzter Eintrag eine ungültige Herkunft hat: alle Einträge werden vollständig validiert,
+ * danach bricht der Service ab, bevor etwas gespeichert wird. Repository und EntityManager werden
+ * dadurch nie benutzt.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharakterValidationBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private CharakterService service;
+    private List<CharakterDTO> dtos;
+
+    @Setup
+    public void setup() {
+        service = new CharakterService(null, null, null, null, null, null, null);
+        dtos = new ArrayList<>(BenchmarkData.dtos(size));
+        dtos.add(new CharakterDTO(null, "Ungültig", "alive", "männlich", "gazorpazorp", "mensch"));
+    }
+
+    @Benchmark
+    public Object validate() {
+        try {
+            return service.createCharaktere(dtos);
+        } catch (IllegalArgumentException expected) {
+            return expected;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.m295.m295_backend.benchmark;
+
+import com.m295.m295_backend.M295BackendApplication;
+import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.repository.CharakterRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vergleicht den Durchsatz mit Plattform-Threads (Standard) und mit virtuellen Threads
+ * plus Zugangskontrolle zum Connection-Pool.
+ *
+ * <p>
+ * Kein JMH-Benchmark, da eine ganze Anwendung gestartet wird; liegt aber mit den anderen
+ * Benchmarks im Profil {@code jmh} und wird manuell gestartet (Java 21 nötig für virtuelle Threads):
+ * </p>
+ * <pre>{@code
+ * mvn -Pjmh test-compile exec:exec \
+ *     -Djmh.main=com.m295.m295_backend.benchmark.VirtualThreadBenchmark \
+ *     -Djmh.args="2000 20000"
+ * }</pre>
+ *
+ * <p>
+ * Argumente: gleichzeitige Clients, Anzahl Requests, optional JDBC-URL, Benutzer und Passwort.
+ * Ohne URL läuft eine H2-In-Memory-Datenbank; aussagekräftig wird der Vergleich erst mit
+ * PostgreSQL über das Netzwerk, weil dann jeder Request spürbar auf die Datenbank wartet.
+ * </p>
+ */
+public class VirtualThreadBenchmark {
+
+    private static final int SEED_SIZE = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        String url = args.length > 2 ? args[2] : null;
+        String user = args.length > 3 ? args[3] : "db_user";
+        String password = args.length > 4 ? args[4] : "db_password";
+
+        double platform = run(false, clients, requests, url, user, password);
+        double virtual = run(true, clients, requests, url, user, password);
+
+        System.out.printf("Plattform-Threads:                    %,10.0f req/s%n", platform);
+        System.out.printf("Virtuelle Threads + Zugangskontrolle: %,10.0f req/s (%.2fx)%n", virtual, virtual / platform);
+    }
+
+    private static double run(boolean virtualThreads, int clients, int requests,
+                              String url, String user, String password) throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--app.datasource.admission.enabled=" + virtualThreads));
+        if (url == null) {
+            properties.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:bench" + virtualThreads + ";MODE=PostgreSQL",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+        } else {
+            properties.addAll(List.of(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + user,
+                    "--spring.datasource.password=" + password));
+        }
+
+        try (ConfigurableApplicationContext context =
+                     SpringApplication.run(M295BackendApplication.class, properties.toArray(String[]::new))) {
+            List<Long> ids = seed(context.getBean(CharakterRepository.class));
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            fire(client, port, ids, clients, Math.min(requests, clients * 2)); // Aufwärmen
+            long start = System.nanoTime();
+            int ok = fire(client, port, ids, clients, requests);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (ok < requests) {
+                System.out.printf("%d von %d Requests fehlgeschlagen%n", requests - ok, requests);
+            }
+            return ok / seconds;
+        }
+    }
+
+    private static List<Long> seed(CharakterRepository repository) {
+        if (repository.count() < SEED_SIZE) {
+            List<Charakter> charaktere = new ArrayList<>();
+            for (int i = 0; i < SEED_SIZE; i++) {
+                charaktere.add(new Charakter("Bench " + i, "alive", "männlich", "erde (c-137)", "mensch"));
+            }
+            repository.saveAll(charaktere);
+        }
+        return repository.findAll().stream().map(Charakter::getId).toList();
+    }
+
+    private static int fire(HttpClient client, int port, List<Long> ids, int clients, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger ok = new AtomicInteger();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/characters/" + id)).GET().build();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                                ok.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            // zählt als fehlgeschlagen
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return ok.get();
+    }
+}
@@ -0,0 +1,138 @@
+package com.m295.m295_backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource, die den Zugang zum Connection-Pool über eine faire {@link Semaphore} begrenzt.
+ *
+ * <p>
+ * Mit virtuellen Threads können tausende Requests gleichzeitig auf eine Connection warten.
+ * Statt im Pool zu warten, parken sie hier auf der Semaphore; das ist für virtuelle Threads
+ * billig und blockiert keine Carrier-Threads. Ein Permit wird beim Schliessen der Connection
+ * (Rückgabe an den Pool) wieder freigegeben.
+ * </p>
+ *
+ * <p><strong>Verschachtelte Connections:</strong></p>
+ * <p>
+ * Holt ein Thread, der schon ein Permit hält, eine weitere Connection (z.B. {@code REQUIRES_NEW}),
+ * wartet er nicht erneut auf die Semaphore, sondern geht direkt an den Pool. Sonst könnten alle Permits
+ * bei Threads liegen, die auf ihre zweite Connection warten, und keiner käme weiter. Damit der Pool dafür
+ * Reserve hat, muss die Anzahl Permits kleiner als der Pool sein (siehe {@link ConnectionAdmissionConfig}).
+ * </p>
+ *
+ * @see ConnectionAdmissionConfig
+ */
+public class AdmissionControlDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    /**
+     * Anzahl Permits, die der aktuelle Thread hält.
+     */
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+    /**
+     * Erstellt eine neue {@code AdmissionControlDataSource}.
+     *
+     * @param target        die eigentliche DataSource (z.B. Hikari)
+     * @param maxConcurrent maximale Anzahl gleichzeitig ausgeliehener Connections
+     * @param timeoutMillis maximale Wartezeit auf ein Permit in Millisekunden
+     */
+    public AdmissionControlDataSource(DataSource target, int maxConcurrent, long timeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger holder = held.get();
+        if (holder.get() > 0) {
+            return obtainTargetDataSource().getConnection();
+        }
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(), holder);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger holder = held.get();
+        if (holder.get() > 0) {
+            return obtainTargetDataSource().getConnection(username, password);
+        }
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password), holder);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl Threads zurück, die gerade auf ein Permit warten.
+     *
+     * @return Länge der Warteschlange
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Keine Connection innerhalb von " + timeoutMillis + " ms verfügbar");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Warten auf Connection unterbrochen", e);
+        }
+    }
+
+    /**
+     * Umhüllt die Connection so, dass das Permit genau einmal beim ersten {@code close()} freigegeben wird.
+     * Der Zähler des Threads wird auch dann zurückgesetzt, wenn ein anderer Thread schliesst.
+     */
+    private Connection releasingOnClose(Connection target, AtomicInteger holder) {
+        holder.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            holder.decrementAndGet();
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,92 @@
+package com.m295.m295_backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.service.DatenVersionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Konfiguriert die Ergebnis-Caches für Charakter-Abfragen.
+ *
+ * <p>
+ * Die Caches basieren auf Caffeine (W-TinyLFU) und sind in der Grösse begrenzt.
+ * Sie werden bei jeder schreibenden Operation im {@code CharakterService} geleert.
+ * </p>
+ *
+ * <p>
+ * Der Cache-Manager ist transaktionsbewusst: Leeren und Befüllen innerhalb einer Transaktion
+ * geschehen erst nach dem Commit. Sonst könnte ein gleichzeitiger Lesezugriff zwischen dem Leeren
+ * und dem Commit die alten Daten wieder in den Cache legen.
+ * </p>
+ * <p>
+ * Zusätzlich enthält jeder Key den gelesenen Datenstand der Charaktere ({@link DatenVersionService#readVersion}).
+ * Ein Lesezugriff, der vor dem Commit eines Schreibzugriffs abfragt und erst nach dem Leeren des Caches
+ * speichert, legt sein Ergebnis unter dem alten Datenstand ab und wird danach nie mehr getroffen.
+ * </p>
+ *
+ * <p><strong>Konfiguration:</strong></p>
+ * <pre>{@code
+ * app.cache.charakter.maximum-size=1000
+ * }</pre>
+ *
+ * @see com.m295.m295_backend.service.CharakterService
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache für Ergebnisse von {@code filterCharacters}.
+     */
+    public static final String FILTER_CACHE = "charakterFilter";
+
+    /**
+     * Cache für Ergebnisse von {@code searchByNameKeyword}.
+     */
+    public static final String SEARCH_CACHE = "charakterSearch";
+
+    /**
+     * Erstellt den transaktionsbewussten Cache-Manager mit begrenzten Caffeine-Caches und aktivierter Statistik.
+     *
+     * @param maximumSize maximale Anzahl Einträge pro Cache
+     * @return der konfigurierte {@link CacheManager}
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.charakter.maximum-size:1000}") long maximumSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(FILTER_CACHE, SEARCH_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Erzeugt Cache-Keys aus dem Datenstand und den normalisierten Parametern (Strings in Kleinbuchstaben),
+     * damit z.B. {@code species=Mensch} und {@code species=mensch} denselben Eintrag treffen.
+     *
+     * @param datenVersion Datenstand, wird erst beim ersten Key aufgelöst
+     * @return KeyGenerator für case-insensitive Abfragen
+     */
+    @Bean
+    public KeyGenerator normalizedKeyGenerator(ObjectProvider<DatenVersionService> datenVersion) {
+        return (target, method, params) -> {
+            Object[] normalized = new Object[params.length + 1];
+            normalized[0] = datenVersion.getObject().readVersion(Bereich.CHARAKTERE);
+            for (int i = 0; i < params.length; i++) {
+                normalized[i + 1] = params[i] instanceof String value ? value.toLowerCase(Locale.ROOT) : params[i];
+            }
+            return new SimpleKey(normalized);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.m295.m295_backend.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Aktiviert die Zugangskontrolle zum Connection-Pool für den Betrieb mit virtuellen Threads.
+ *
+ * <p>
+ * Ist {@code app.datasource.admission.enabled=true}, wird die DataSource in eine
+ * {@link AdmissionControlDataSource} gehüllt. Standardmässig gibt es ein Permit weniger als
+ * Connections im Hikari-Pool. Die übrige Connection ist Reserve für verschachtelte Connections
+ * (ein Thread mit Permit holt eine zweite Connection, z.B. das Schreiben der Favoriten mit
+ * {@code REQUIRES_NEW}); diese warten nicht auf ein Permit. Wer {@code permits} selbst setzt,
+ * muss diese Reserve einplanen, sonst können sich gleichzeitige Requests bis zum Timeout blockieren.
+ * </p>
+ *
+ * <p><strong>Konfiguration:</strong></p>
+ * <pre>{@code
+ * spring.threads.virtual.enabled=true
+ * app.datasource.admission.enabled=true
+ * app.datasource.admission.permits=9
+ * app.datasource.admission.timeout-ms=30000
+ * }</pre>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.admission.enabled", havingValue = "true")
+public class ConnectionAdmissionConfig {
+
+    /**
+     * Hüllt jede DataSource in eine {@link AdmissionControlDataSource}.
+     * Bei aktivem Replikat ({@link ReadReplicaConfig}) nur die beiden Connection-Pools, nicht die
+     * DataSources, die nur weiterleiten; sonst würde jede Connection mehrere Permits belegen.
+     * Static, damit der PostProcessor vor den DataSource-Beans erzeugt wird.
+     *
+     * @param environment Spring-Umgebung zum Lesen der Einstellungen
+     * @return der BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor admissionControlDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlDataSource)
+                        && !(bean instanceof LazyConnectionDataSourceProxy) && !(bean instanceof ReplicaDataSource)) {
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    int permits = environment.getProperty("app.datasource.admission.permits", Integer.class,
+                            Math.max(1, poolSize - 1));
+                    long timeoutMillis = environment.getProperty("app.datasource.admission.timeout-ms", Long.class, 30_000L);
+                    return new AdmissionControlDataSource(dataSource, permits, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
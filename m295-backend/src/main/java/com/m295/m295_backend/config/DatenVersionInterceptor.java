@@ -0,0 +1,80 @@
+package com.m295.m295_backend.config;
+
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.service.DatenVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Setzt auf Lese-Endpunkten für Listen einen schwachen ETag aus dem Datenstand
+ * (z.B. {@code W/"v42"}) und beantwortet ein passendes {@code If-None-Match} mit 304,
+ * bevor der Controller aufgerufen wird. Unveränderte Daten kosten so keine Datenbankabfrage.
+ * <p>
+ * Charakter-Endpunkte nutzen nur den Datenstand der Charaktere, Favoriten ändern ihren ETag also nicht.
+ * Die Favoriten-Liste kann Charakterdaten enthalten ({@code enrich=true}) und nutzt deshalb beide
+ * Stände (z.B. {@code W/"v42-7"}).
+ * </p>
+ * <p>
+ * Der Datenstand wird vor der Abfrage gelesen. Ändern sich die Daten währenddessen,
+ * ist der ETag höchstens zu alt und der nächste Request lädt die Daten erneut.
+ * Mit Lese-Replikat legt der Request seinen Lesestand fest ({@link DatenVersionService#pinReadVersion}),
+ * damit ETag, Cache-Key und Routing dieselbe Version nutzen; nach dem Request wird er freigegeben.
+ * </p>
+ * <p>
+ * Der ETag hängt nicht vom Format ab (JSON, CBOR, Smile). Deshalb wird {@code Vary: Accept} gesendet,
+ * damit Caches die Formate getrennt speichern und nicht eine CBOR-Antwort für einen JSON-Client bestätigen.
+ * </p>
+ *
+ * @see DatenVersionService
+ */
+@Component
+public class DatenVersionInterceptor implements HandlerInterceptor {
+
+    private static final String FAVORITEN_PATH = "/api/characters/favoriten";
+
+    private final DatenVersionService datenVersion;
+
+    /**
+     * Konstruktor mit Service-Injektion.
+     *
+     * @param datenVersion Service für den Datenstand
+     */
+    public DatenVersionInterceptor(DatenVersionService datenVersion) {
+        this.datenVersion = datenVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String version;
+        if (request.getRequestURI().startsWith(request.getContextPath() + FAVORITEN_PATH)) {
+            datenVersion.pinReadVersion(Bereich.CHARAKTERE, Bereich.FAVORITEN);
+            version = datenVersion.readVersion(Bereich.CHARAKTERE) + "-" + datenVersion.readVersion(Bereich.FAVORITEN);
+        } else {
+            datenVersion.pinReadVersion(Bereich.CHARAKTERE);
+            version = String.valueOf(datenVersion.readVersion(Bereich.CHARAKTERE));
+        }
+        String etag = "W/\"v" + version + "\"";
+        // setzt den ETag und bei passendem If-None-Match den Status 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            // afterCompletion wird nur nach preHandle = true aufgerufen
+            datenVersion.releaseReadVersion();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        datenVersion.releaseReadVersion();
+    }
+}
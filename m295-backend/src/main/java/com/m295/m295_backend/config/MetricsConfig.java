@@ -0,0 +1,41 @@
+package com.m295.m295_backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguriert die Service-Metriken.
+ *
+ * <p>
+ * HTTP-Requests ({@code http.server.requests}, pro Route), Hikari ({@code hikaricp.*}) und
+ * Hibernate ({@code hibernate.*}) werden von Spring Boot automatisch gemessen.
+ * Hier wird zusätzlich {@code @Timed} aktiviert, womit jede öffentliche Methode des
+ * {@code CharakterService} als Timer {@code charakter.service} erfasst wird.
+ * </p>
+ *
+ * <p><strong>Abruf:</strong></p>
+ * <p>
+ * Die Actuator-Endpunkte laufen auf dem Management-Port ({@code management.server.port}, nur lokal
+ * erreichbar) und nicht auf dem öffentlichen Anwendungs-Port.
+ * </p>
+ * <pre>{@code
+ * GET http://localhost:8081/actuator/prometheus
+ * GET http://localhost:8081/actuator/metrics/charakter.service?tag=method:filterCharacters
+ * }</pre>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Aspekt, der Methoden mit {@code @Timed} misst.
+     *
+     * @param registry die Micrometer-Registry
+     * @return der {@link TimedAspect}
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,144 @@
+package com.m295.m295_backend.config;
+
+import com.m295.m295_backend.service.DatenVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Leitet Lesezugriffe ({@code @Transactional(readOnly = true)}) auf ein Replikat und Schreibzugriffe
+ * auf die primäre Datenbank.
+ *
+ * <p>
+ * Ist {@code app.datasource.replica.enabled=true}, ersetzt diese Konfiguration die DataSource von Spring Boot:
+ * Die primäre Datenbank wird wie bisher über {@code spring.datasource.*} konfiguriert, das Replikat über
+ * {@code app.datasource.replica.*} (Hikari-Einstellungen). Ein {@link LazyConnectionDataSourceProxy} holt
+ * die Connection erst beim ersten Statement und wählt dann anhand des Read-only-Flags der Transaktion
+ * den Pool. Ob das Replikat wirklich genutzt wird, entscheidet die {@link ReplicaDataSource}.
+ * </p>
+ *
+ * <p><strong>Konfiguration:</strong></p>
+ * <pre>{@code
+ * app.datasource.replica.enabled=true
+ * app.datasource.replica.jdbc-url=jdbc:postgresql://replica:5432/M295_db
+ * app.datasource.replica.username=db_user
+ * app.datasource.replica.password=db_password
+ * app.datasource.replica.maximum-pool-size=10
+ * app.datasource.replica.check-interval-ms=1000
+ * app.datasource.replica.max-lag-ms=0
+ * }</pre>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Connection-Pool der primären Datenbank aus {@code spring.datasource.*}.
+     *
+     * @param properties Einstellungen aus {@code spring.datasource}
+     * @return der Pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Connection-Pool des Replikats aus {@code app.datasource.replica.*}.
+     *
+     * @return der Pool
+     */
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        // nicht erreichbares Replikat soll Lesezugriffe nicht lange aufhalten
+        dataSource.setConnectionTimeout(2000);
+        return dataSource;
+    }
+
+    /**
+     * Lese-DataSource mit Ausweichen auf die primäre Datenbank.
+     *
+     * @param primary            Pool der primären Datenbank
+     * @param replica            Pool des Replikats
+     * @param datenVersion       Datenstand, den das Replikat erreicht haben muss
+     * @param checkIntervalMillis Abstand der Prüfungen der Replikat-Version
+     * @param maxLagMillis       wie lange Listen-Requests ein zurückliegendes Replikat noch lesen dürfen
+     * @return die Lese-DataSource
+     */
+    @Bean
+    public ReplicaDataSource replicaReadDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                   @Qualifier("replicaDataSource") DataSource replica,
+                                                   ObjectProvider<DatenVersionService> datenVersion,
+                                                   @Value("${app.datasource.replica.check-interval-ms:1000}") long checkIntervalMillis,
+                                                   @Value("${app.datasource.replica.max-lag-ms:0}") long maxLagMillis) {
+        // der Service wird erst beim Aufruf aufgelöst, da er selbst von der DataSource abhängt
+        return new ReplicaDataSource(replica, primary, bereich -> datenVersion.getObject().requiredVersion(bereich),
+                checkIntervalMillis, maxLagMillis);
+    }
+
+    /**
+     * Wiederholt Lese-Transaktionen auf der primären Datenbank, wenn eine Abfrage auf dem Replikat scheitert.
+     *
+     * @param reads Lese-DataSource
+     * @return der Aspekt
+     */
+    @Bean
+    public ReplicaFallbackAspect replicaFallbackAspect(@Qualifier("replicaReadDataSource") ReplicaDataSource reads) {
+        return new ReplicaFallbackAspect(reads);
+    }
+
+    /**
+     * DataSource der Anwendung: Schreibzugriffe auf die primäre Datenbank, Lesezugriffe über die
+     * {@link ReplicaDataSource}.
+     *
+     * @param primary Pool der primären Datenbank
+     * @param reads   Lese-DataSource
+     * @return die DataSource für JPA und Repositories
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaReadDataSource") DataSource reads) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(reads);
+        return dataSource;
+    }
+
+    /**
+     * Zählt, wie viele Lese-Connections vom Replikat und wie viele von der primären Datenbank kamen.
+     *
+     * @param reads Lese-DataSource
+     * @return MeterBinder für Micrometer
+     */
+    @Bean
+    public MeterBinder replicaRoutingMetrics(@Qualifier("replicaReadDataSource") ReplicaDataSource reads) {
+        return registry -> {
+            FunctionCounter.builder("datasource.reads", reads, ReplicaDataSource::getReplicaConnections)
+                    .tag("target", "replica")
+                    .description("Lese-Connections nach Ziel")
+                    .register(registry);
+            FunctionCounter.builder("datasource.reads", reads, ReplicaDataSource::getPrimaryConnections)
+                    .tag("target", "primary")
+                    .description("Lese-Connections nach Ziel")
+                    .register(registry);
+        };
+    }
+}
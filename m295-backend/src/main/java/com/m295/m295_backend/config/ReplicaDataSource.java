@@ -0,0 +1,331 @@
+package com.m295.m295_backend.config;
+
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * DataSource für Lesezugriffe, die das Replikat nur nutzt, wenn es verfügbar und aktuell genug ist,
+ * und sonst auf die primäre Datenbank ausweicht.
+ *
+ * <p><strong>Replikations-Verzögerung:</strong></p>
+ * <p>
+ * Ein Hintergrund-Thread liest in regelmässigen Abständen die Versionen aller Bereiche aus der Tabelle
+ * {@code daten_version} des Replikats. {@link #getConnection()} vergleicht nur noch das zwischengespeicherte
+ * Ergebnis, ein langsames oder nicht erreichbares Replikat verzögert Lesezugriffe also nicht. Das Replikat wird
+ * nur genutzt, wenn es in jedem Bereich mindestens die geforderte Version erreicht hat. Liegt es zurück, wird
+ * sofort eine weitere Prüfung angestossen, statt auf das nächste Intervall zu warten.
+ * </p>
+ * <p>
+ * Die geforderte Version gilt pro Aufrufer und kommt aus dem {@code requiredVersion}-Callback: der Lesestand,
+ * den der aktuelle Request festgelegt hat, sonst der zuletzt committete Datenstand. Für Listen-Requests legt
+ * {@link DatenVersionInterceptor} den Lesestand mit {@link #readableVersion} fest; ETag und Cache-Key nutzen
+ * dieselbe Version und passen so immer zu den gelesenen Daten.
+ * </p>
+ * <p>
+ * Mit {@code max-lag-ms > 0} darf ein festgelegter Lesestand hinter dem committeten Datenstand liegen, solange
+ * das Replikat vor höchstens so vielen Millisekunden noch aktuell war (gemessen bei den Prüfungen, also auf
+ * das Prüf-Intervall genau). Listen können dann entsprechend alt sein, auch direkt nach einem eigenen
+ * Schreibzugriff. Mit {@code 0} (Standard) sieht ein Client nach einem Schreibzugriff nie ältere Daten.
+ * </p>
+ *
+ * <p><strong>Ausfall:</strong></p>
+ * <p>
+ * Liefert das Replikat keine Connection, schlägt die Prüfung fehl oder meldet {@link ReplicaFallbackAspect}
+ * eine fehlgeschlagene Abfrage ({@link #replicaFailed()}), wird es bis zur nächsten erfolgreichen Prüfung
+ * nicht mehr verwendet.
+ * </p>
+ */
+public class ReplicaDataSource extends DelegatingDataSource implements DisposableBean {
+
+    private static final String VERSION_QUERY = "SELECT id, version FROM daten_version";
+
+    private final DataSource primary;
+    private final ToLongFunction<Bereich> requiredVersion;
+    private final long checkIntervalMillis;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService probe;
+    private final AtomicBoolean probePending = new AtomicBoolean();
+
+    /**
+     * Versionen des Replikats, Index ist {@link Bereich#ordinal()}.
+     */
+    private volatile long[] replicaVersions = new long[Bereich.values().length];
+
+    /**
+     * Zeitpunkt pro Bereich, zu dem das Replikat zuletzt nachweislich aktuell war.
+     */
+    private volatile long[] caughtUpAt = new long[Bereich.values().length];
+    private volatile boolean available;
+
+    /**
+     * Committete Versionen bei den letzten Prüfungen, die das Replikat noch nicht erreicht hat.
+     */
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    /**
+     * Ob der aktuelle Thread seit {@link #resetReplicaUsed()} eine Connection vom Replikat bekommen hat.
+     */
+    private final ThreadLocal<Boolean> replicaUsed = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Ob der aktuelle Thread nur die primäre Datenbank nutzen darf (Wiederholung nach einem Fehler des Replikats).
+     */
+    private final ThreadLocal<Boolean> primaryOnly = ThreadLocal.withInitial(() -> false);
+
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong primaryConnections = new AtomicLong();
+
+    /**
+     * Erstellt die DataSource für Lesezugriffe.
+     *
+     * @param replica             Connection-Pool des Replikats
+     * @param primary             Connection-Pool der primären Datenbank (Ausweichziel)
+     * @param requiredVersion     geforderte Version pro Bereich für den aktuellen Aufrufer (ohne festgelegten
+     *                            Lesestand der zuletzt committete Datenstand), negativ wenn noch unbekannt
+     * @param checkIntervalMillis Abstand der Prüfungen der Replikat-Version
+     * @param maxLagMillis        wie lange das Replikat für festgelegte Lesestände zurückliegen darf (0 = nie)
+     */
+    public ReplicaDataSource(DataSource replica, DataSource primary, ToLongFunction<Bereich> requiredVersion,
+                             long checkIntervalMillis, long maxLagMillis) {
+        super(replica);
+        this.primary = primary;
+        this.requiredVersion = requiredVersion;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.maxLagMillis = maxLagMillis;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-probe-");
+        threadFactory.setDaemon(true);
+        this.probe = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Startet die regelmässige Prüfung des Replikats, die erste sofort.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        probe.scheduleWithFixedDelay(this::checkReplica, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Beendet die Prüfung beim Herunterfahren.
+     */
+    @Override
+    public void destroy() {
+        probe.shutdownNow();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = obtainTargetDataSource().getConnection();
+                replicaConnections.incrementAndGet();
+                replicaUsed.set(true);
+                return connection;
+            } catch (SQLException e) {
+                replicaFailed();
+            }
+        }
+        primaryConnections.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Zugangsdaten gelten nur für eine Datenbank, daher immer die primäre
+        primaryConnections.incrementAndGet();
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        if (!available || primaryOnly.get()) {
+            return false;
+        }
+        long[] versions = replicaVersions;
+        for (Bereich bereich : Bereich.values()) {
+            long required = requiredVersion.applyAsLong(bereich);
+            if (required < 0) {
+                return false;
+            }
+            if (versions[bereich.ordinal()] < required) {
+                probeSoon();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Liefert die Version, die ein Lesezugriff jetzt für einen Bereich festlegen soll.
+     * Ist das Replikat aktuell oder nicht nutzbar, ist das der committete Datenstand (gelesen wird dann vom
+     * Replikat bzw. von der primären Datenbank). Liegt das Replikat innerhalb von {@code max-lag-ms} zurück,
+     * ist es die Version des Replikats.
+     *
+     * @param bereich   Bereich des Datenstands
+     * @param committed zuletzt committeter Datenstand des Bereichs
+     * @return festzulegende Version
+     */
+    public long readableVersion(Bereich bereich, long committed) {
+        long replicaVersion = replicaVersions[bereich.ordinal()];
+        if (!available || committed < 0 || replicaVersion >= committed) {
+            return committed;
+        }
+        probeSoon();
+        if (maxLagMillis > 0 && System.currentTimeMillis() - caughtUpAt[bereich.ordinal()] <= maxLagMillis) {
+            return replicaVersion;
+        }
+        return committed;
+    }
+
+    /**
+     * Setzt die Markierung zurück, ob der aktuelle Thread eine Connection vom Replikat bekommen hat.
+     */
+    void resetReplicaUsed() {
+        replicaUsed.remove();
+    }
+
+    /**
+     * Prüft, ob der aktuelle Thread seit {@link #resetReplicaUsed()} eine Connection vom Replikat bekommen hat.
+     *
+     * @return true, wenn das Replikat benutzt wurde
+     */
+    boolean replicaUsed() {
+        return replicaUsed.get();
+    }
+
+    /**
+     * Legt fest, ob der aktuelle Thread nur die primäre Datenbank nutzen darf.
+     *
+     * @param enabled true für die Wiederholung auf der primären Datenbank, false zum Zurücksetzen
+     */
+    void setPrimaryOnly(boolean enabled) {
+        if (enabled) {
+            primaryOnly.set(true);
+        } else {
+            primaryOnly.remove();
+        }
+    }
+
+    /**
+     * Markiert das Replikat nach einem Fehler als nicht verfügbar, bis eine Prüfung wieder erfolgreich ist.
+     */
+    void replicaFailed() {
+        available = false;
+        probeSoon();
+    }
+
+    /**
+     * Stösst eine Prüfung an, falls nicht schon eine wartet.
+     */
+    private void probeSoon() {
+        if (probePending.compareAndSet(false, true)) {
+            try {
+                probe.execute(this::checkReplica);
+            } catch (RuntimeException e) {
+                // beim Herunterfahren
+                probePending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Liest die Versionen des Replikats; fehlende Zeilen zählen als 0.
+     * Bei einem Fehler gilt das Replikat als nicht verfügbar.
+     * Läuft normalerweise im Hintergrund-Thread; ein direkter Aufruf prüft sofort.
+     */
+    synchronized void checkReplica() {
+        probePending.set(false);
+        long now = System.currentTimeMillis();
+        // vor dem Lesen des Replikats: erreicht es diesen Stand, war es zum Zeitpunkt now aktuell
+        long[] required = new long[Bereich.values().length];
+        for (Bereich bereich : Bereich.values()) {
+            required[bereich.ordinal()] = requiredVersion.applyAsLong(bereich);
+        }
+        samples.addLast(new Sample(now, required));
+        try (Connection connection = obtainTargetDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(VERSION_QUERY);
+             ResultSet result = statement.executeQuery()) {
+            long[] versions = new long[Bereich.values().length];
+            while (result.next()) {
+                long id = result.getLong(1);
+                for (Bereich bereich : Bereich.values()) {
+                    if (bereich.id() == id) {
+                        versions[bereich.ordinal()] = result.getLong(2);
+                    }
+                }
+            }
+            updateCaughtUp(versions);
+            replicaVersions = versions;
+            available = true;
+        } catch (SQLException e) {
+            available = false;
+        }
+        // ältere Stände helfen nicht mehr: das Replikat wäre damit ohnehin zu weit zurück
+        samples.removeIf(sample -> now - sample.time() > maxLagMillis);
+    }
+
+    /**
+     * Übernimmt pro Bereich den jüngsten Prüf-Zeitpunkt, dessen Stand das Replikat erreicht hat,
+     * und entfernt die Stände, die es in allen Bereichen erreicht hat.
+     */
+    private void updateCaughtUp(long[] versions) {
+        long[] caught = caughtUpAt.clone();
+        for (Sample sample : samples) {
+            for (Bereich bereich : Bereich.values()) {
+                int i = bereich.ordinal();
+                if (sample.required()[i] <= versions[i]) {
+                    caught[i] = Math.max(caught[i], sample.time());
+                }
+            }
+        }
+        caughtUpAt = caught;
+        samples.removeIf(sample -> {
+            for (Bereich bereich : Bereich.values()) {
+                if (sample.required()[bereich.ordinal()] > versions[bereich.ordinal()]) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Liefert die Anzahl Connections, die vom Replikat kamen.
+     *
+     * @return Anzahl Connections
+     */
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+
+    /**
+     * Liefert die Anzahl Lese-Connections, die wegen Ausfall oder Verzögerung von der primären Datenbank kamen.
+     *
+     * @return Anzahl Connections
+     */
+    public long getPrimaryConnections() {
+        return primaryConnections.get();
+    }
+
+    /**
+     * Committete Versionen zu einem Prüf-Zeitpunkt.
+     */
+    private record Sample(long time, long[] required) {
+    }
+}
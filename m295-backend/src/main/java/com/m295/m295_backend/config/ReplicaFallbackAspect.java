@@ -0,0 +1,80 @@
+package com.m295.m295_backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+
+/**
+ * Wiederholt eine Lese-Transaktion ({@code @Transactional(readOnly = true)}) einmal auf der primären Datenbank,
+ * wenn eine Abfrage auf dem Replikat an der Verbindung oder am Replikat selbst scheitert (z.B. Neustart,
+ * abgebrochene Abfrage wegen Konflikt mit der Replikation). Das Replikat wird dabei als nicht verfügbar
+ * markiert, bis die nächste Prüfung erfolgreich ist.
+ * <p>
+ * Läuft vor dem Transaktions-Interceptor und nur für die äusserste Transaktion, damit die Wiederholung
+ * eine neue Transaktion mit neuer Connection bekommt. Lesezugriffe ohne eigene {@code @Transactional}-Methode
+ * (direkte Repository-Aufrufe) werden nicht wiederholt.
+ * </p>
+ */
+@Aspect
+@Order(0) // vor dem Transaktions-Interceptor (LOWEST_PRECEDENCE)
+public class ReplicaFallbackAspect {
+
+    private final ReplicaDataSource reads;
+
+    /**
+     * Konstruktor mit DataSource-Injektion.
+     *
+     * @param reads Lese-DataSource
+     */
+    public ReplicaFallbackAspect(ReplicaDataSource reads) {
+        this.reads = reads;
+    }
+
+    /**
+     * Führt die Methode aus und wiederholt sie bei einem Fehler des Replikats auf der primären Datenbank.
+     *
+     * @param joinPoint     die aufgerufene Methode
+     * @param transactional Transaktions-Einstellungen der Methode
+     * @return Rückgabewert der Methode
+     * @throws Throwable Fehler der Methode, wenn sie nicht wiederholt wird
+     */
+    @Around("@annotation(transactional)")
+    public Object retryOnPrimary(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        reads.resetReplicaUsed();
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException e) {
+            if (!reads.replicaUsed() || !isReplicaFailure(e)) {
+                throw e;
+            }
+            reads.replicaFailed();
+            reads.setPrimaryOnly(true);
+            return joinPoint.proceed();
+        } finally {
+            reads.setPrimaryOnly(false);
+            reads.resetReplicaUsed();
+        }
+    }
+
+    /**
+     * Verbindungsfehler (SQLState 08), Eingriff des Betreibers wie Neustart (57P) oder eine wegen der
+     * Replikation abgebrochene Abfrage (40001 auf einem PostgreSQL-Standby).
+     */
+    private static boolean isReplicaFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                String state = sql.getSQLState();
+                return state.startsWith("08") || state.startsWith("57P") || state.equals("40001");
+            }
+        }
+        return false;
+    }
+}
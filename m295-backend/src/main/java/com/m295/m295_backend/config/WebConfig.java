@@ -1,11 +1,21 @@
 package com.m295.m295_backend.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
- * Konfiguriert CORS (Cross-Origin Resource Sharing) für das Backend.
+ * Konfiguriert CORS (Cross-Origin Resource Sharing) und die Antwortformate für das Backend.
  *
  * <p>
  * Diese Klasse ermöglicht Cross-Origin-Anfragen vom Frontend, z. B. bei einer
@@ -15,7 +25,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * <p><strong>Details:</strong></p>
  * <ul>
  *   <li>Erlaubt Zugriffe auf Pfade unter <code>/api/**</code></li>
- *   <li>Erlaubt HTTP-Methoden: GET, POST, PUT, DELETE, OPTIONS</li>
+ *   <li>Erlaubt HTTP-Methoden: GET, POST, PUT, PATCH, DELETE, OPTIONS</li>
  *   <li>Erlaubt alle Header</li>
  *   <li>Keine Weitergabe von Cookies/Credentials</li>
  *   <li>Maximale Cache-Dauer für Preflight-Requests: 3600 Sekunden</li>
@@ -29,12 +39,40 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  *   .then(data => console.log(data));
  * }</pre>
  *
+ * <p><strong>Antwortformate:</strong></p>
+ * <p>
+ * JSON bleibt Standard. Mit {@code Accept: application/cbor} oder {@code Accept: application/x-jackson-smile}
+ * liefern alle Endpunkte dieselben DTOs binär kodiert (kleiner und schneller zu parsen); im selben Format
+ * können auch Request-Bodies gesendet werden.
+ * </p>
+ *
+ * <p><strong>Conditional GET:</strong></p>
+ * <p>
+ * Listen, Filter, Facetten, Zählungen und Favoriten tragen einen ETag aus dem Datenstand
+ * ({@link DatenVersionInterceptor}); bei passendem {@code If-None-Match} antwortet der Server mit 304.
+ * </p>
+ *
  * @see CorsRegistry
  * @see WebMvcConfigurer
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+    private final DatenVersionInterceptor datenVersionInterceptor;
+
+    /**
+     * Erstellt die Web-Konfiguration.
+     *
+     * @param objectMapperBuilder     Builder mit den Jackson-Einstellungen von Spring Boot (pro Aufruf neu)
+     * @param datenVersionInterceptor setzt den ETag aus dem Datenstand auf Lese-Endpunkten
+     */
+    public WebConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder,
+                     DatenVersionInterceptor datenVersionInterceptor) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.datenVersionInterceptor = datenVersionInterceptor;
+    }
+
     /**
      * Konfiguriert globale CORS-Regeln für REST-Endpunkte.
      *
@@ -44,10 +82,49 @@ public class WebConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:5173")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(false)
                 .maxAge(3600);
     }
 
+    /**
+     * Registriert den ETag aus dem Datenstand für alle Lese-Endpunkte, deren Antwort nur von den
+     * gespeicherten Daten abhängt. Nicht dabei sind {@code /random} (zufällig), {@code /distinct/*}
+     * (eigener ETag aus dem Inhalt) und Einzelabfragen per ID (ETag aus der Version des Charakters).
+     *
+     * @param registry Registry für Interceptoren
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(datenVersionInterceptor)
+                .addPathPatterns(
+                        "/api/characters/all",
+                        "/api/characters/all/form",
+                        "/api/characters/export",
+                        "/api/characters/filter",
+                        "/api/characters/facets",
+                        "/api/characters/count",
+                        "/api/characters/count/**",
+                        "/api/characters/search/name",
+                        "/api/characters/favoriten");
+    }
+
+    /**
+     * Registriert CBOR und Smile nach dem JSON-Converter, damit JSON ohne passenden
+     * {@code Accept}-Header Standard bleibt. Die Mapper nutzen dieselben Einstellungen wie JSON.
+     *
+     * @param converters die bereits registrierten Converter
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+    }
+
 }
@@ -0,0 +1,45 @@
+package com.m295.m295_backend.controller;
+
+import com.m295.m295_backend.dto.CacheStatsDTO;
+import com.m295.m295_backend.service.CacheStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST-Controller für die Statistiken der Ergebnis-Caches.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Cache-Statistiken abfragen")
+public class CacheStatsController {
+
+    private final CacheStatsService cacheStatsService;
+
+    /**
+     * Konstruktor mit Service-Injektion.
+     *
+     * @param cacheStatsService Service für Cache-Statistiken
+     */
+    public CacheStatsController(CacheStatsService cacheStatsService) {
+        this.cacheStatsService = cacheStatsService;
+    }
+
+    /**
+     * Gibt Treffer, Fehlzugriffe und Verdrängungen aller Caches zurück.
+     *
+     * @return Liste der Cache-Statistiken
+     */
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Cache-Statistiken",
+            description = "Gibt Grösse, Treffer, Fehlzugriffe und Verdrängungen aller Caches zurück"
+    )
+    public List<CacheStatsDTO> getCacheStats() {
+        return cacheStatsService.getCacheStats();
+    }
+}
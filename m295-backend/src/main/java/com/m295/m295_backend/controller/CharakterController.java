@@ -1,21 +1,41 @@
 package com.m295.m295_backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.m295.m295_backend.dto.CharakterBulkUpdateDTO;
 import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.dto.CharakterFacetsDTO;
 import com.m295.m295_backend.dto.CharakterFormDTO;
+import com.m295.m295_backend.dto.CursorPageDTO;
 import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.exception.InvalidCharakterDataException;
 import com.m295.m295_backend.mapper.CharakterMapper;
+import com.m295.m295_backend.service.AenderungsFeed;
+import com.m295.m295_backend.service.CharakterDistinctValues;
 import com.m295.m295_backend.service.CharakterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Random;
 
 /**
  * REST-Controller zur Verwaltung von {@link Charakter}-Objekten.
@@ -36,32 +56,164 @@ import java.util.Random;
 @Tag(name = "Charakter", description = "Charaktere verwalten")
 public class CharakterController {
     private final CharakterService service;
+    private final AenderungsFeed aenderungsFeed;
+    private final ObjectWriter exportWriter;
 
     /**
      * Konstruktor für {@link CharakterController}.
      *
-     * @param service Service zur Verwaltung von Charakteren
+     * @param service        Service zur Verwaltung von Charakteren
+     * @param aenderungsFeed Feed für Änderungen an Charakteren und Favoriten
+     * @param objectMapper   Jackson-Mapper für den NDJSON-Export
      */
-    public CharakterController(CharakterService service) {
+    public CharakterController(CharakterService service, AenderungsFeed aenderungsFeed, ObjectMapper objectMapper) {
         this.service = service;
+        this.aenderungsFeed = aenderungsFeed;
+        // Writer schliesst und flusht den Stream nicht nach jeder Zeile
+        this.exportWriter = objectMapper.writerFor(CharakterDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
-     * Gibt eine Liste aller Charaktere als {@link CharakterDTO} zurück.
+     * Gibt eine Seite von Charakteren als {@link CharakterDTO} zurück (Cursor-Paginierung).
      *
-     * @return Liste aller gespeicherten Charaktere
+     * <p><strong>Beispiel:</strong></p>
+     * <pre>{@code
+     * GET /api/characters/all?limit=50
+     * GET /api/characters/all?after=50&limit=50
+     * }</pre>
+     *
+     * @param after ID des letzten Charakters der vorherigen Seite (optional)
+     * @param limit maximale Anzahl Charaktere pro Seite
+     * @return Seite mit Charakteren und Cursor für die nächste Seite
      */
     @GetMapping("/all")
     @Operation(
             summary = "Alle Charaktere aufrufen",
-            description = "Gibt alle Charaktere der API zurück"
+            description = "Gibt die Charaktere seitenweise zurück. Mit nextCursor als after-Parameter wird die nächste Seite geladen"
     )
-    public List<CharakterDTO> getAll() {
+    @ApiResponse(responseCode = "200", description = "Seite erfolgreich zurückgegeben")
+    @ApiResponse(responseCode = "400", description = "Ungültiges Limit")
+    public CursorPageDTO<CharakterDTO> getAll(
+            @Parameter(description = "ID des letzten Charakters der vorherigen Seite", example = "100")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Anzahl Charaktere pro Seite (max. 1000)", example = "100")
+            @RequestParam(defaultValue = "" + CharakterService.DEFAULT_PAGE_SIZE) int limit) {
+        return service.getCharaktersPageAsDTO(after, limit);
+    }
+
+    /**
+     * Gibt eine Liste aller Charaktere als {@link CharakterDTO} zurück.
+     * Nur mit explizitem {@code unpaged=true}, da die ganze Tabelle geladen wird.
+     *
+     * @return Liste aller gespeicherten Charaktere
+     */
+    @GetMapping(value = "/all", params = "unpaged=true")
+    @Operation(
+            summary = "Alle Charaktere ohne Paginierung",
+            description = "Gibt alle Charaktere der API in einer Liste zurück"
+    )
+    public List<CharakterDTO> getAllUnpaged() {
         return service.getAllCharaktersAsDTO();
     }
 
+    /**
+     * Liefert Änderungen an Charakteren und Favoriten als Server-Sent Events, damit Clients
+     * eine lokale Kopie aktuell halten können, statt {@code /all} und {@code /favoriten} periodisch abzufragen.
+     * Clients sollten sich zuerst verbinden und erst danach die Daten laden, damit keine Änderung verloren geht.
+     *
+     * <p><strong>Beispiel:</strong></p>
+     * <pre>{@code
+     * const source = new EventSource("/api/characters/changes");
+     * source.onmessage = e => apply(JSON.parse(e.data));
+     * }</pre>
+     *
+     * @param lastEventId ID des zuletzt empfangenen Ereignisses (setzt der Browser beim Neuverbinden)
+     * @return SSE-Stream mit {@link com.m295.m295_backend.dto.AenderungDTO}
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Änderungs-Feed",
+            description = "Streamt Erstellen, Ändern und Löschen von Charakteren und Favoriten als Server-Sent Events"
+    )
+    @ApiResponse(responseCode = "200", description = "Stream geöffnet")
+    public SseEmitter streamChanges(
+            @Parameter(description = "ID des zuletzt empfangenen Ereignisses", example = "1760000000000042")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long after = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                after = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                after = -1L; // unbekannte ID: Feed antwortet mit RESET
+            }
+        }
+        return aenderungsFeed.subscribe(after);
+    }
+
+    /**
+     * Exportiert alle Charaktere als NDJSON (eine JSON-Zeile pro Charakter) oder CSV.
+     * Die Zeilen werden direkt aus der Datenbank in die Response gestreamt,
+     * ohne die ganze Liste im Speicher aufzubauen.
+     *
+     * <p><strong>Beispiel:</strong></p>
+     * <pre>{@code
+     * GET /api/characters/export?format=csv
+     * }</pre>
+     *
+     * @param format Exportformat, {@code ndjson} (Standard) oder {@code csv}
+     * @return gestreamter Response-Body
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Alle Charaktere exportieren",
+            description = "Streamt alle Charaktere als NDJSON oder CSV"
+    )
+    @ApiResponse(responseCode = "200", description = "Export gestartet")
+    @ApiResponse(responseCode = "400", description = "Unbekanntes Format")
+    public ResponseEntity<StreamingResponseBody> exportCharaktere(
+            @Parameter(description = "Exportformat (ndjson oder csv)", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv;
+        if ("csv".equalsIgnoreCase(format)) {
+            csv = true;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            csv = false;
+        } else {
+            throw new InvalidCharakterDataException("Unbekanntes Exportformat: " + format + ". Erlaubt: ndjson, csv");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CharakterMapper.CSV_HEADER);
+                writer.write('\n');
+            }
+            service.exportCharaktere(dto -> {
+                try {
+                    if (csv) {
+                        writer.write(CharakterMapper.toCsvLine(dto));
+                    } else {
+                        exportWriter.writeValue(writer, dto);
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=charaktere." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
     /**
      * Sucht einen Charakter anhand seiner ID.
+     * Der ETag der Antwort enthält die Version und kann beim Update als {@code If-Match} gesendet werden.
      *
      * @param id Die eindeutige ID des Charakters
      * @return {@link CharakterDTO} des gefundenen Charakters
@@ -73,10 +225,11 @@ public class CharakterController {
     )
     @ApiResponse(responseCode = "200", description = "Charakter gefunden")
     @ApiResponse(responseCode = "404", description = "Charakter nicht gefunden")
-    public CharakterDTO getCharakter(
+    public ResponseEntity<CharakterDTO> getCharakter(
             @Parameter(description = "ID des gesuchten Charakter", example = "1", required = true)
             @PathVariable Long id) {
-        return service.getCharakterByIdAsDTO(id);
+        Charakter charakter = service.getCharakterById(id);
+        return withVersion(charakter.getVersion(), CharakterMapper.toDTO(charakter));
 
     }
 
@@ -112,11 +265,34 @@ public class CharakterController {
         //Validierung automatisch vor diesem code
     }
 
+    /**
+     * Erstellt mehrere Charaktere in einem Aufruf.
+     * Alle Einträge werden zuerst validiert; ist einer ungültig, wird nichts gespeichert.
+     *
+     * @param dtos Liste der zu erstellenden Charaktere
+     * @return Die erstellten Charaktere mit ihren IDs
+     */
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(
+            summary = "Mehrere Charaktere erstellen",
+            description = "Erstellt alle übergebenen Charaktere in einer Transaktion mit JDBC-Batch-Inserts"
+    )
+    @ApiResponse(responseCode = "201", description = "Charaktere erfolgreich erstellt")
+    @ApiResponse(responseCode = "400", description = "Ungültige Eingabe, es wurde nichts gespeichert")
+    public List<CharakterDTO> createCharaktere(@RequestBody List<CharakterDTO> dtos) {
+        return service.createCharaktere(dtos);
+    }
+
     /**
      * Aktualisiert einen bestehenden Charakter anhand seiner ID und den neuen Daten.
+     * Mit {@code If-Match} (ETag aus {@code GET /{id}}) wird nur aktualisiert,
+     * wenn der Charakter seither nicht geändert wurde.
+     * Die Antwort enthält immer den ETag der neuen Version, auch ohne {@code If-Match}.
      *
-     * @param id  ID des zu aktualisierenden Charakters
-     * @param dto Neue Charakterdaten
+     * @param id      ID des zu aktualisierenden Charakters
+     * @param ifMatch erwartete Version als ETag (optional)
+     * @param dto     Neue Charakterdaten
      * @return Aktualisierter Charakter als {@link CharakterDTO}
      */
     @PutMapping("/{id}")
@@ -126,11 +302,18 @@ public class CharakterController {
     )
     @ApiResponse(responseCode = "200", description = "Charakter erfolgreich aktualisiert")
     @ApiResponse(responseCode = "404", description = "Cahrakter nicht gefunden")
+    @ApiResponse(responseCode = "412", description = "Charakter wurde inzwischen geändert (If-Match)")
 
-    public CharakterDTO updateCharakter(
+    public ResponseEntity<CharakterDTO> updateCharakter(
             @Parameter(description = "Id des zu aktualiserenden Charakters", example = "1", required = true)
-            @PathVariable Long id, @Valid @RequestBody CharakterDTO dto) {
-        return service.updateCharakter(id, dto);
+            @PathVariable Long id,
+            @Parameter(description = "ETag der zuletzt gelesenen Version", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CharakterDTO dto) {
+        Long expectedVersion = parseVersion(ifMatch);
+        Charakter values = CharakterMapper.toEntity(dto);
+        CharakterDTO updated = service.updateCharakter(id, values, expectedVersion);
+        return withVersion(values.getVersion(), updated);
     }
 
     /**
@@ -183,6 +366,81 @@ public class CharakterController {
         return service.filterCharacters(species, status, gender, origin);
     }
 
+    /**
+     * Ändert alle Charaktere, die dem Filter entsprechen, mit einem einzigen UPDATE.
+     *
+     * <p><strong>Beispiel:</strong></p>
+     * <pre>{@code
+     * PATCH /api/characters/bulk?origin=Zitadelle der Ricks
+     * { "status": "dead" }
+     * }</pre>
+     *
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @param changes neue Werte, nicht gesetzte Felder bleiben unverändert
+     * @return Anzahl geänderter Charaktere
+     */
+    @PatchMapping("/bulk")
+    @Operation(
+            summary = "Mehrere Charaktere per Filter ändern",
+            description = "Setzt die angegebenen Werte bei allen Charakteren, die dem Filter entsprechen"
+    )
+    @ApiResponse(responseCode = "200", description = "Anzahl geänderter Charaktere")
+    @ApiResponse(responseCode = "400", description = "Kein Filter, kein neuer Wert oder ungültiger Wert")
+    public int bulkUpdate(
+            @Parameter(description = "Spezies des Chars")
+            @RequestParam(required = false) String species,
+            @Parameter(description = "Status des Chars")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Geschlecht des Chars")
+            @RequestParam(required = false) String gender,
+            @Parameter(description = "Herkunft des Chars")
+            @RequestParam(required = false) String origin,
+            @RequestBody CharakterBulkUpdateDTO changes) {
+        return service.bulkUpdate(species, status, gender, origin, changes);
+    }
+
+    /**
+     * Löscht mehrere Charaktere, entweder per ID-Liste oder per Filter, mit möglichst wenigen DELETEs.
+     * ID-Liste und Filter können nicht kombiniert werden.
+     *
+     * @param ids     IDs der zu löschenden Charaktere (optional)
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @return Anzahl gelöschter Charaktere
+     */
+    @DeleteMapping("/bulk")
+    @Operation(
+            summary = "Mehrere Charaktere per ID-Liste oder Filter löschen",
+            description = "Löscht alle Charaktere mit den angegebenen IDs oder alle, die dem Filter entsprechen. "
+                    + "Unbekannte IDs werden ignoriert"
+    )
+    @ApiResponse(responseCode = "200", description = "Anzahl gelöschter Charaktere")
+    @ApiResponse(responseCode = "400", description = "Weder IDs noch Filter angegeben oder beides kombiniert")
+    public int bulkDelete(
+            @Parameter(description = "IDs der zu löschenden Chars", example = "1,2,3")
+            @RequestParam(required = false) List<Long> ids,
+            @Parameter(description = "Spezies des Chars")
+            @RequestParam(required = false) String species,
+            @Parameter(description = "Status des Chars")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Geschlecht des Chars")
+            @RequestParam(required = false) String gender,
+            @Parameter(description = "Herkunft des Chars")
+            @RequestParam(required = false) String origin) {
+        if (ids != null) {
+            if (species != null || status != null || gender != null || origin != null) {
+                throw new InvalidCharakterDataException("IDs und Filter können nicht kombiniert werden");
+            }
+            return service.deleteCharaktere(ids);
+        }
+        return service.bulkDelete(species, status, gender, origin);
+    }
+
     /**
      * Zählt Charaktere nach Spezies.
      *
@@ -234,35 +492,57 @@ public class CharakterController {
         return service.countByGender(gender);
     }
 
+    /**
+     * Gibt die Anzahl Charaktere für alle Werte von Spezies, Status, Geschlecht und Herkunft zurück.
+     * Ersetzt die einzelnen Aufrufe der {@code /count/...}-Endpunkte pro Wert.
+     *
+     * @return Anzahlen pro Attributwert
+     */
+    @GetMapping("/facets")
+    @Operation(
+            summary = "Anzahlen pro Attributwert",
+            description = "Gibt für jede Spezies, jeden Status, jedes Geschlecht und jede Herkunft die Anzahl Charaktere zurück"
+    )
+    @ApiResponse(responseCode = "200", description = "Anzahlen erfolgreich zurückgegeben")
+    public CharakterFacetsDTO getFacets() {
+        return service.getFacets();
+    }
+
     // --- Textsuche ---
 
     /**
      * Sucht Charaktere anhand eines Namens-Keywords.
+     * Die Treffer sind nach Relevanz sortiert (exakter Name, Namensanfang, Wortanfang, Rest).
      *
      * <p><strong>Beispiel:</strong></p>
      * <pre>{@code
-     * GET /api/characters/search/name?keyword=Rick
+     * GET /api/characters/search/name?keyword=Rick&limit=10
      * }</pre>
      *
      * @param keyword Teilstring des Namens
+     * @param limit   maximale Anzahl Treffer
      * @return Liste der passenden Charaktere
      */
     @GetMapping("/search/name")
     @Operation(
             summary = "Charakter nach Name suchen",
-            description = "Charakter nach angebenem Keyword suchen"
+            description = "Charakter nach angebenem Keyword suchen, nach Relevanz sortiert"
     )
     @ApiResponse(responseCode = "200", description = "Suchergebniss erfolgreich")
+    @ApiResponse(responseCode = "400", description = "Ungültiges Limit")
 
     public List<CharakterDTO> searchByName(
             @Parameter(description = "Suchbegriff für den Namen", example = "Rick", required = true)
-            @RequestParam String keyword) {
-        return service.searchByNameKeyword(keyword);
+            @RequestParam String keyword,
+            @Parameter(description = "Maximale Anzahl Treffer (max. 1000)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+        return service.searchByNameKeyword(keyword, limit);
     }
 
     //Für Drop Down Felder
     /**
      * Gibt eine Liste aller einzigartigen Spezies zurück.
+     * Die Antwort enthält einen ETag; bei passendem {@code If-None-Match} wird 304 ohne Body geliefert.
      *
      * @return Liste der Spezies
      */
@@ -271,12 +551,15 @@ public class CharakterController {
             summary = "Liste aller einzigartigen Arten (species)",
             description = "Gibt eine Liste aller einzigartigen Arten zurück, die in der Datenbank vorhanden sind"
     )
-    public List<String> getSpeciesList() {
-        return service.getDistinctSpecies();
+    @ApiResponse(responseCode = "200", description = "Liste zurückgegeben")
+    @ApiResponse(responseCode = "304", description = "Liste unverändert seit dem angegebenen ETag")
+    public ResponseEntity<List<String>> getSpeciesList() {
+        return withETag(service.getDistinctSpecies());
     }
 
     /**
      * Gibt eine Liste aller einzigartigen Herkunftsorte zurück.
+     * Die Antwort enthält einen ETag; bei passendem {@code If-None-Match} wird 304 ohne Body geliefert.
      *
      * @return Liste der Herkunftsorte
      */
@@ -285,24 +568,61 @@ public class CharakterController {
             summary = "Liste aller einzigartigen Herkunftsorte",
             description = "Gibt eine Liste aller einzigartigen Herkunftsorte der Charaktere zurück"
     )
-    public List<String> getOriginList() {
-        return service.getDistinctOrigins();
+    @ApiResponse(responseCode = "200", description = "Liste zurückgegeben")
+    @ApiResponse(responseCode = "304", description = "Liste unverändert seit dem angegebenen ETag")
+    public ResponseEntity<List<String>> getOriginList() {
+        return withETag(service.getDistinctOrigins());
+    }
+
+    /**
+     * Baut eine Response mit ETag. Spring beantwortet einen passenden
+     * {@code If-None-Match}-Header automatisch mit 304 Not Modified.
+     */
+    private ResponseEntity<List<String>> withETag(CharakterDistinctValues.Snapshot snapshot) {
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.values());
     }
 
     //Methoden für formular mit charakterFormDTO
     /**
-     * Gibt alle Charaktere als {@link CharakterFormDTO} zurück.
+     * Gibt eine Seite von Charakteren als {@link CharakterFormDTO} zurück (Cursor-Paginierung).
      *
-     * @return Liste aller Charaktere im FormDTO-Format
+     * @param after ID des letzten Charakters der vorherigen Seite (optional)
+     * @param limit maximale Anzahl Charaktere pro Seite
+     * @return Seite mit Charakteren im FormDTO-Format
      */
     @GetMapping("/all/form")
     @Operation(
             summary = "Alle Charakter als FormDTO",
+            description = "GIbt die Charaktere seitenweise als FormDTO zurück"
+    )
+    @ApiResponse(responseCode = "200", description = "Erfolgreiche Rückgabe der Charakterseite")
+    @ApiResponse(responseCode = "400", description = "Ungültiges Limit")
+
+    public CursorPageDTO<CharakterFormDTO> getAllCharactersAsFormDTO(
+            @Parameter(description = "ID des letzten Charakters der vorherigen Seite", example = "100")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Anzahl Charaktere pro Seite (max. 1000)", example = "100")
+            @RequestParam(defaultValue = "" + CharakterService.DEFAULT_PAGE_SIZE) int limit) {
+        return service.getCharactersPageAsFormDTO(after, limit);
+    }
+
+    /**
+     * Gibt alle Charaktere als {@link CharakterFormDTO} zurück.
+     * Nur mit explizitem {@code unpaged=true}, da die ganze Tabelle geladen wird.
+     *
+     * @return Liste aller Charaktere im FormDTO-Format
+     */
+    @GetMapping(value = "/all/form", params = "unpaged=true")
+    @Operation(
+            summary = "Alle Charakter als FormDTO ohne Paginierung",
             description = "GIbt eine Liste aller Charaktere als FormDTO zurück"
     )
     @ApiResponse(responseCode = "200", description = "Erfolgreiche Rückgabe der Charakterliste")
 
-    public List<CharakterFormDTO> getAllCharactersAsFormDTO(){
+    public List<CharakterFormDTO> getAllCharactersAsFormDTOUnpaged() {
         return service.getAllCharactersAsFormDTO();
     }
 
@@ -318,9 +638,10 @@ public class CharakterController {
             description = "Gibt die Daten des Chars als Form DTO zurück"
     )
     @ApiResponse(responseCode = "200", description = "Charakter gefunden")
-    @ApiResponse(responseCode = "400", description = "Charakter nicht gefunden")
-    public CharakterFormDTO getCharakterFormDTO(@PathVariable long id) {
-        return service.getCharactersByIdAsFormDTO(id);
+    @ApiResponse(responseCode = "404", description = "Charakter nicht gefunden")
+    public ResponseEntity<CharakterFormDTO> getCharakterFormDTO(@PathVariable long id) {
+        Charakter charakter = service.getCharakterById(id);
+        return withVersion(charakter.getVersion(), CharakterMapper.toFormDTO(charakter));
     }
 
     /**
@@ -345,8 +666,12 @@ public class CharakterController {
 
     /**
      * Aktualisiert einen bestehenden Charakter mit neuen Formdaten.
+     * Mit {@code If-Match} (ETag aus {@code GET /{id}/edit}) wird nur aktualisiert,
+     * wenn der Charakter seither nicht geändert wurde.
+     * Die Antwort enthält immer den ETag der neuen Version, auch ohne {@code If-Match}.
      *
      * @param id      ID des Charakters
+     * @param ifMatch erwartete Version als ETag (optional)
      * @param formDTO Neue Formulardaten
      * @return Aktualisierter Charakter als FormDTO
      */
@@ -358,35 +683,118 @@ public class CharakterController {
     @ApiResponse(responseCode = "200", description = "Charakter erfolgreich aktualisiert")
     @ApiResponse(responseCode = "400", description = "Ungültige EIngabe")
     @ApiResponse(responseCode = "404", description = "Charakter nicht gefunden")
+    @ApiResponse(responseCode = "412", description = "Charakter wurde inzwischen geändert (If-Match)")
 
-    public CharakterFormDTO updateCharacterFromFormDTO(@PathVariable long id, @Valid @RequestBody CharakterFormDTO formDTO) {
+    public ResponseEntity<CharakterFormDTO> updateCharacterFromFormDTO(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CharakterFormDTO formDTO) {
+        Long expectedVersion = parseVersion(ifMatch);
         Charakter charakter = CharakterMapper.fromFormDTO(formDTO);
-        return service.updateCharakterFromForm(id, charakter);
+        CharakterFormDTO updated = service.updateCharakterFromForm(id, charakter, expectedVersion);
+        return withVersion(charakter.getVersion(), updated);
+    }
+
+    /**
+     * Liest die Version aus einem {@code If-Match}-Header (z.B. {@code "3"} oder {@code W/"3"}).
+     * Fehlt der Header oder ist er {@code *}, wird ohne Versionsprüfung aktualisiert.
+     */
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCharakterDataException("Ungültiger If-Match-Header: " + ifMatch);
+        }
+    }
+
+    /**
+     * Baut eine Response mit der Version als ETag (falls bekannt).
+     */
+    private <T> ResponseEntity<T> withVersion(Long version, T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag("\"" + version + "\"");
+        }
+        return builder.body(body);
     }
 
     /**
      * Gibt einen zufälligen Charakter aus der Datenbank zurück.
      *
+     * @param species Spezies des Charakters (optional)
+     * @param status  Status des Charakters (optional)
+     * @param gender  Geschlecht des Charakters (optional)
+     * @param origin  Herkunft des Charakters (optional)
      * @return Ein zufälliger {@link Charakter} als ResponseEntity oder 404, falls keine vorhanden sind.
      */
     @GetMapping("/random")
     @Operation(
             summary = "Zufälliger Charakter",
-            description = "Gibt einen zufällig ausgewählten Charakter aus der Datenbank zurück"
+            description = "Gibt einen zufällig ausgewählten Charakter aus der Datenbank zurück, optional gefiltert"
     )
     @ApiResponse(responseCode = "200", description = "Zufälliger Charakter erfolgreich gefunden")
     @ApiResponse(responseCode = "404", description = "Keine Charaktere vorhanden")
-    public ResponseEntity<?> getRandomCharacter() {
-        List<CharakterDTO> allCharacters = service.getAllCharaktersAsDTO();
+    public ResponseEntity<?> getRandomCharacter(
+            @Parameter(description = "Spezies des Chars")
+            @RequestParam(required = false) String species,
+            @Parameter(description = "Status des Chars")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Geschlecht des Chars")
+            @RequestParam(required = false) String gender,
+            @Parameter(description = "Herkunft des Chars")
+            @RequestParam(required = false) String origin) {
+        List<CharakterDTO> randomCharacters = service.getRandomCharakters(1, species, status, gender, origin);
 
-        if (allCharacters.isEmpty()) {
+        if (randomCharacters.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Keine Charaktere vorhanden.");
         }
 
-        int randomIndex = new Random().nextInt(allCharacters.size());
-        CharakterDTO randomCharacter = allCharacters.get(randomIndex);
+        return ResponseEntity.ok(randomCharacters.get(0));
+    }
 
-        return ResponseEntity.ok(randomCharacter);
+    /**
+     * Gibt mehrere verschiedene zufällige Charaktere zurück.
+     *
+     * <p><strong>Beispiel:</strong></p>
+     * <pre>{@code
+     * GET /api/characters/random?count=5&species=Mensch&status=alive
+     * }</pre>
+     *
+     * @param count   Anzahl gewünschter Charaktere
+     * @param species Spezies des Charakters (optional)
+     * @param status  Status des Charakters (optional)
+     * @param gender  Geschlecht des Charakters (optional)
+     * @param origin  Herkunft des Charakters (optional)
+     * @return Liste mit {@code count} zufälligen Charakteren (weniger nur, wenn weniger passen)
+     */
+    @GetMapping(value = "/random", params = "count")
+    @Operation(
+            summary = "Mehrere zufällige Charaktere",
+            description = "Gibt count verschiedene zufällige Charaktere zurück, optional gefiltert; "
+                    + "weniger nur, wenn nicht genug Charaktere passen"
+    )
+    @ApiResponse(responseCode = "200", description = "Zufällige Charaktere zurückgegeben")
+    @ApiResponse(responseCode = "400", description = "Ungültige Anzahl")
+    public List<CharakterDTO> getRandomCharacters(
+            @Parameter(description = "Anzahl Charaktere (max. 50)", example = "5")
+            @RequestParam int count,
+            @Parameter(description = "Spezies des Chars")
+            @RequestParam(required = false) String species,
+            @Parameter(description = "Status des Chars")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Geschlecht des Chars")
+            @RequestParam(required = false) String gender,
+            @Parameter(description = "Herkunft des Chars")
+            @RequestParam(required = false) String origin) {
+        return service.getRandomCharakters(count, species, status, gender, origin);
     }
-}
+}
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.m295.m295_backend.controller;
 
 import com.m295.m295_backend.dto.FavoritDTO;
 import com.m295.m295_backend.service.FavoritCharakterService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,16 +29,33 @@ public class FavoritCharakterController {
 
     /**
      * Gibt alle gespeicherten Favoriten zurück.
+     * Mit {@code enrich=true} werden die Daten der Charaktere aus {@code charaktere} aktualisiert
+     * (eine Abfrage mit Join, unabhängig von der Anzahl Favoriten).
      *
+     * @param enrich aktuelle Charakterdaten verwenden statt der gespeicherten Kopie
      * @return Liste von FavoritDTOs
      */
     @GetMapping
-    public List<FavoritDTO> getAllFavoriten() {
+    public List<FavoritDTO> getAllFavoriten(@RequestParam(defaultValue = "false") boolean enrich) {
+        if (enrich) {
+            return favoritService.getAllFavoritenEnriched();
+        }
         return favoritService.getAllFavoriten();
     }
 
     /**
-     * Speichert einen neuen Favoriten.
+     * Sucht den Favoriten eines Charakters.
+     *
+     * @param charakterId ID des Charakters
+     * @return FavoritDTO oder 404, wenn der Charakter kein Favorit ist
+     */
+    @GetMapping("/charakter/{charakterId}")
+    public ResponseEntity<FavoritDTO> getFavoritByCharakterId(@PathVariable Long charakterId) {
+        return ResponseEntity.of(favoritService.getFavoritByCharakterId(charakterId));
+    }
+
+    /**
+     * Speichert einen Favoriten. Ist der Charakter bereits Favorit, wird dieser aktualisiert.
      *
      * @param dto FavoritDTO mit den Daten
      * @return das gespeicherte FavoritDTO
@@ -46,6 +65,21 @@ public class FavoritCharakterController {
         return favoritService.saveFavorit(dto);
     }
 
+    /**
+     * Schaltet den Favoriten-Status eines Charakters um.
+     *
+     * @param charakterId ID des Charakters
+     * @param dto         Daten für den neuen Favoriten (nur nötig, wenn er angelegt wird)
+     * @return 201 mit dem angelegten Favoriten oder 204, wenn der Favorit entfernt wurde
+     */
+    @PostMapping("/charakter/{charakterId}/toggle")
+    public ResponseEntity<FavoritDTO> toggleFavorit(@PathVariable Long charakterId,
+                                                    @RequestBody(required = false) FavoritDTO dto) {
+        return favoritService.toggleFavorit(charakterId, dto)
+                .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     /**
      * Löscht einen Favoriten anhand seiner ID.
      *
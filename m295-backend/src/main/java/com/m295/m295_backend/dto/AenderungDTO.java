@@ -0,0 +1,109 @@
+package com.m295.m295_backend.dto;
+
+/**
+ * Data Transfer Object (DTO) für ein Ereignis im Änderungs-Feed ({@code GET /api/characters/changes}).
+ *
+ * <p>Jedes Ereignis hat eine fortlaufende ID, die auch als SSE-{@code id} gesendet wird. Nach einem
+ * Verbindungsabbruch schickt der Browser sie als {@code Last-Event-ID} und erhält die verpassten Ereignisse.
+ * Eine Lücke in den IDs bedeutet, dass Ereignisse verworfen wurden; der Client sollte dann neu laden.</p>
+ *
+ * <p><strong>Beispiel:</strong></p>
+ * <pre>{@code
+ * id: 42
+ * data: {"id":42,"typ":"UPDATED","entitaet":"CHARAKTER","schluessel":7,"daten":{"id":7,"name":"Rick",...}}
+ * }</pre>
+ */
+public class AenderungDTO {
+
+    /**
+     * Art der Änderung.
+     */
+    public enum Typ {
+        /** Neuer Eintrag, {@code daten} enthält ihn. */
+        CREATED,
+        /** Eintrag angelegt oder ersetzt, {@code daten} enthält den neuen Stand. */
+        UPDATED,
+        /** Eintrag gelöscht, {@code daten} ist leer. */
+        DELETED,
+        /** Viele Einträge auf einmal geändert (Batch, Bulk-Update); der Client muss neu laden. */
+        RESET
+    }
+
+    /**
+     * Betroffene Daten.
+     */
+    public enum Entitaet {
+        /** Charakter, {@code schluessel} ist die ID des Charakters. */
+        CHARAKTER,
+        /** Favorit, {@code schluessel} ist die ID des Charakters (pro Charakter gibt es höchstens einen Favoriten). */
+        FAVORIT
+    }
+
+    private final long id;
+    private final Typ typ;
+    private final Entitaet entitaet;
+    private final Long schluessel;
+    private final Object daten;
+
+    /**
+     * Konstruktor zur Initialisierung aller Felder.
+     *
+     * @param id         fortlaufende ID des Ereignisses
+     * @param typ        Art der Änderung
+     * @param entitaet   betroffene Daten
+     * @param schluessel ID des betroffenen Eintrags oder {@code null} bei {@link Typ#RESET}
+     * @param daten      neuer Stand des Eintrags (DTO) oder {@code null}
+     */
+    public AenderungDTO(long id, Typ typ, Entitaet entitaet, Long schluessel, Object daten) {
+        this.id = id;
+        this.typ = typ;
+        this.entitaet = entitaet;
+        this.schluessel = schluessel;
+        this.daten = daten;
+    }
+
+    /**
+     * Liefert die fortlaufende ID des Ereignisses.
+     *
+     * @return ID als long
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Liefert die Art der Änderung.
+     *
+     * @return Typ der Änderung
+     */
+    public Typ getTyp() {
+        return typ;
+    }
+
+    /**
+     * Liefert die betroffenen Daten.
+     *
+     * @return Entität der Änderung
+     */
+    public Entitaet getEntitaet() {
+        return entitaet;
+    }
+
+    /**
+     * Liefert die ID des betroffenen Eintrags.
+     *
+     * @return ID oder {@code null} bei {@link Typ#RESET}
+     */
+    public Long getSchluessel() {
+        return schluessel;
+    }
+
+    /**
+     * Liefert den neuen Stand des Eintrags.
+     *
+     * @return DTO oder {@code null}
+     */
+    public Object getDaten() {
+        return daten;
+    }
+}
@@ -0,0 +1,63 @@
+package com.m295.m295_backend.dto;
+
+/**
+ * Data Transfer Object (DTO) mit den Statistiken eines Caches.
+ *
+ * <p><strong>Beispiel:</strong></p>
+ * <pre>{@code
+ * { "name": "charakterFilter", "size": 42, "hitCount": 1200, "missCount": 42,
+ *   "hitRate": 0.966, "evictionCount": 0 }
+ * }</pre>
+ */
+public class CacheStatsDTO {
+
+    private final String name;
+    private final long size;
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final long evictionCount;
+
+    /**
+     * Konstruktor zur Initialisierung aller Felder.
+     *
+     * @param name          Name des Caches
+     * @param size          aktuelle (geschätzte) Anzahl Einträge
+     * @param hitCount      Anzahl Treffer
+     * @param missCount     Anzahl Fehlzugriffe
+     * @param hitRate       Trefferquote zwischen 0 und 1
+     * @param evictionCount Anzahl wegen Grösse verdrängter Einträge
+     */
+    public CacheStatsDTO(String name, long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,87 @@
+package com.m295.m295_backend.dto;
+
+/**
+ * Data Transfer Object (DTO) mit den neuen Werten für eine Massenänderung.
+ *
+ * <p>Nur gesetzte Felder werden geändert, {@code null} lässt den bisherigen Wert stehen.
+ * Mindestens ein Feld muss gesetzt sein.</p>
+ *
+ * <p><strong>Beispiel:</strong></p>
+ * <pre>{@code
+ * PATCH /api/characters/bulk?origin=Zitadelle der Ricks
+ * { "status": "dead" }
+ * }</pre>
+ */
+public class CharakterBulkUpdateDTO {
+
+    /**
+     * Neuer Status (optional).
+     */
+    private final String status;
+
+    /**
+     * Neue Spezies (optional).
+     */
+    private final String species;
+
+    /**
+     * Neues Geschlecht (optional).
+     */
+    private final String gender;
+
+    /**
+     * Neue Herkunft (optional).
+     */
+    private final String origin;
+
+    /**
+     * Konstruktor zur Initialisierung aller Felder.
+     *
+     * @param status  neuer Status oder null
+     * @param species neue Spezies oder null
+     * @param gender  neues Geschlecht oder null
+     * @param origin  neue Herkunft oder null
+     */
+    public CharakterBulkUpdateDTO(String status, String species, String gender, String origin) {
+        this.status = status;
+        this.species = species;
+        this.gender = gender;
+        this.origin = origin;
+    }
+
+    /**
+     * Gibt den neuen Status zurück.
+     *
+     * @return neuer Status oder null
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Gibt die neue Spezies zurück.
+     *
+     * @return neue Spezies oder null
+     */
+    public String getSpecies() {
+        return species;
+    }
+
+    /**
+     * Gibt das neue Geschlecht zurück.
+     *
+     * @return neues Geschlecht oder null
+     */
+    public String getGender() {
+        return gender;
+    }
+
+    /**
+     * Gibt die neue Herkunft zurück.
+     *
+     * @return neue Herkunft oder null
+     */
+    public String getOrigin() {
+        return origin;
+    }
+}
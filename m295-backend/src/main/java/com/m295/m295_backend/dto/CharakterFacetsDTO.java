@@ -0,0 +1,93 @@
+package com.m295.m295_backend.dto;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) mit den Anzahlen aller Charaktere pro Attributwert.
+ *
+ * <p>Wird vom Dashboard verwendet, um alle Zählwerte mit einem einzigen Aufruf zu laden.</p>
+ *
+ * <p><strong>Beispiel:</strong></p>
+ * <pre>{@code
+ * {
+ *   "species": { "Mensch": 12, "Alien": 3 },
+ *   "status":  { "alive": 10, "dead": 5 },
+ *   "gender":  { "männlich": 9, "weiblich": 6 },
+ *   "origin":  { "Erde (C-137)": 15 }
+ * }
+ * }</pre>
+ */
+public class CharakterFacetsDTO {
+
+    /**
+     * Anzahl Charaktere pro Spezies.
+     */
+    private final Map<String, Long> species;
+
+    /**
+     * Anzahl Charaktere pro Status.
+     */
+    private final Map<String, Long> status;
+
+    /**
+     * Anzahl Charaktere pro Geschlecht.
+     */
+    private final Map<String, Long> gender;
+
+    /**
+     * Anzahl Charaktere pro Herkunft.
+     */
+    private final Map<String, Long> origin;
+
+    /**
+     * Konstruktor zur Initialisierung aller Felder.
+     *
+     * @param species Anzahl pro Spezies
+     * @param status  Anzahl pro Status
+     * @param gender  Anzahl pro Geschlecht
+     * @param origin  Anzahl pro Herkunft
+     */
+    public CharakterFacetsDTO(Map<String, Long> species, Map<String, Long> status,
+                              Map<String, Long> gender, Map<String, Long> origin) {
+        this.species = species;
+        this.status = status;
+        this.gender = gender;
+        this.origin = origin;
+    }
+
+    /**
+     * Gibt die Anzahl Charaktere pro Spezies zurück.
+     *
+     * @return Map von Spezies auf Anzahl
+     */
+    public Map<String, Long> getSpecies() {
+        return species;
+    }
+
+    /**
+     * Gibt die Anzahl Charaktere pro Status zurück.
+     *
+     * @return Map von Status auf Anzahl
+     */
+    public Map<String, Long> getStatus() {
+        return status;
+    }
+
+    /**
+     * Gibt die Anzahl Charaktere pro Geschlecht zurück.
+     *
+     * @return Map von Geschlecht auf Anzahl
+     */
+    public Map<String, Long> getGender() {
+        return gender;
+    }
+
+    /**
+     * Gibt die Anzahl Charaktere pro Herkunft zurück.
+     *
+     * @return Map von Herkunft auf Anzahl
+     */
+    public Map<String, Long> getOrigin() {
+        return origin;
+    }
+}
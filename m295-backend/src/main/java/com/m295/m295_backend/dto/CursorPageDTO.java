@@ -0,0 +1,62 @@
+package com.m295.m295_backend.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) für eine Seite einer Cursor-basierten (Keyset-) Paginierung.
+ *
+ * <p>Enthält die Elemente der aktuellen Seite sowie den Cursor für die nächste Seite.
+ * Der Cursor ist die ID des letzten Elements; ist keine weitere Seite vorhanden,
+ * ist {@code nextCursor} {@code null}.</p>
+ *
+ * <p><strong>Beispiel:</strong></p>
+ * <pre>{@code
+ * GET /api/characters/all?limit=2
+ * { "items": [ {...id: 1...}, {...id: 2...} ], "nextCursor": 2 }
+ *
+ * GET /api/characters/all?after=2&limit=2
+ * }</pre>
+ *
+ * @param <T> Typ der Elemente (z.B. {@link CharakterDTO})
+ */
+public class CursorPageDTO<T> {
+
+    /**
+     * Die Elemente der aktuellen Seite.
+     */
+    private final List<T> items;
+
+    /**
+     * Die ID, ab der die nächste Seite geladen wird, oder {@code null} auf der letzten Seite.
+     */
+    private final Long nextCursor;
+
+    /**
+     * Konstruktor zur Initialisierung aller Felder.
+     *
+     * @param items      Elemente der Seite
+     * @param nextCursor Cursor für die nächste Seite oder {@code null}
+     */
+    public CursorPageDTO(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gibt die Elemente der aktuellen Seite zurück.
+     *
+     * @return Liste der Elemente
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gibt den Cursor für die nächste Seite zurück.
+     *
+     * @return ID des letzten Elements oder {@code null}, wenn keine weitere Seite existiert
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
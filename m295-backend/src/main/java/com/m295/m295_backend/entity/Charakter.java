@@ -1,6 +1,7 @@
 package com.m295.m295_backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 
 /**
@@ -14,30 +15,41 @@ import jakarta.persistence.*;
 public class Charakter {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    //Postgres macht auto Inrcrement
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "charakter_seq")
+    @SequenceGenerator(name = "charakter_seq", sequenceName = "charaktere_seq", allocationSize = 50)
+    //Sequenz mit Pooled-Optimizer: 50 IDs pro Sequenzaufruf, damit Hibernate Inserts im JDBC-Batch senden kann
     private Long id;
 
     @Column(nullable = false, length = 100)
     //Spalte darf nicht 0 sein max 100 Zeichen
     private String name;
 
+    @Convert(converter = CharakterWertConverter.class)
     @Column(nullable = false)
-    // Spezies darf nicht null sein
+    // Spezies darf nicht null sein, gespeichert als Code aus "charakter_werte"
     private String species;
 
+    @Convert(converter = CharakterWertConverter.class)
     @Column(nullable = false)
-    // Geschlecht darf nicht null sein
+    // Geschlecht darf nicht null sein, gespeichert als Code aus "charakter_werte"
     private String gender;
 
-    @Column(nullable = false, length = 100)
-    // Herkunft darf nicht null sein und max. 100 Zeichen lang
+    @Convert(converter = CharakterWertConverter.class)
+    @Column(nullable = false)
+    // Herkunft darf nicht null sein, gespeichert als Code aus "charakter_werte"
     private String origin;
 
-    @Column(nullable = false, length = 50)
-    // Status darf nicht null sein und max. 50 Zeichen lang
+    @Convert(converter = CharakterWertConverter.class)
+    @Column(nullable = false)
+    // Status darf nicht null sein, gespeichert als Code aus "charakter_werte"
     private String status;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    // Version für optimistisches Locking, wird bei jedem Update um 1 erhöht
+    private Long version;
+
     /**
      * Standard-Konstruktor für JPA.
      */
@@ -191,4 +203,22 @@ public class Charakter {
     public void setStatus(String status) {
         this.status = status;
     }
-}
\ No newline at end of file
+
+    /**
+     * Liefert die Version des Charakters (optimistisches Locking).
+     *
+     * @return Version als Long
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setzt die Version des Charakters.
+     *
+     * @param version die neue Version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,61 @@
+package com.m295.m295_backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity-Klasse für einen Eintrag im Wörterbuch der Charakter-Attribute.
+ * Spezies, Status, Geschlecht und Herkunft werden in der Tabelle "charaktere"
+ * nur als Code gespeichert; der Text steht einmalig in der Tabelle "charakter_werte".
+ *
+ * @see CharakterWoerterbuch
+ */
+@Entity
+@Table(name = "charakter_werte",
+        uniqueConstraints = @UniqueConstraint(name = "uk_charakter_werte_schluessel", columnNames = "schluessel"))
+public class CharakterWert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Code, der in den Spalten von "charaktere" gespeichert wird
+    private Integer id;
+
+    @Column(nullable = false, length = 100)
+    // Schreibweise des ersten gespeicherten Werts, wird in der API ausgegeben
+    private String wert;
+
+    @Column(nullable = false, length = 100)
+    // Wert in Kleinbuchstaben, damit "Human" und "human" denselben Code haben
+    private String schluessel;
+
+    /**
+     * Standard-Konstruktor für JPA.
+     */
+    public CharakterWert() {}
+
+    /**
+     * Liefert den Code des Werts.
+     *
+     * @return Code als Integer
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Liefert den Wert in der gespeicherten Schreibweise.
+     *
+     * @return Wert als String
+     */
+    public String getWert() {
+        return wert;
+    }
+
+    /**
+     * Liefert den Wert in Kleinbuchstaben.
+     *
+     * @return Schlüssel als String
+     */
+    public String getSchluessel() {
+        return schluessel;
+    }
+}
@@ -0,0 +1,37 @@
+package com.m295.m295_backend.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Wandelt Spezies, Status, Geschlecht und Herkunft in kleine Integer-Codes um (Dictionary-Encoding).
+ *
+ * <p>
+ * Die Zuordnung verwaltet das {@link CharakterWoerterbuch}. Hibernate erstellt die Converter über den
+ * Spring-Bean-Container (pro Attribut eine eigene Instanz) und übergibt dabei das gemeinsame Wörterbuch.
+ * </p>
+ */
+@Converter
+public class CharakterWertConverter implements AttributeConverter<String, Integer> {
+
+    private final CharakterWoerterbuch woerterbuch;
+
+    /**
+     * Erstellt den Converter.
+     *
+     * @param woerterbuch gemeinsames Wörterbuch aller Converter
+     */
+    public CharakterWertConverter(CharakterWoerterbuch woerterbuch) {
+        this.woerterbuch = woerterbuch;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String wert) {
+        return woerterbuch.code(wert);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer code) {
+        return woerterbuch.wert(code);
+    }
+}
@@ -0,0 +1,265 @@
+package com.m295.m295_backend.entity;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wörterbuch für Spezies, Status, Geschlecht und Herkunft: ordnet jedem Wert einen kleinen Integer-Code zu
+ * (Dictionary-Encoding, siehe {@link CharakterWertConverter}).
+ *
+ * <p>
+ * Die Zuordnung Code → Wert steht in der Tabelle {@code charakter_werte} und wird beim Start vollständig
+ * in den Speicher geladen ({@link #run}). Der Vergleich ist case-insensitive: "Human" und "HUMAN" ergeben
+ * denselben Code, gelesen wird immer die Schreibweise des ersten gespeicherten Werts. Geladene Charaktere
+ * teilen sich dadurch dieselben String-Instanzen.
+ * </p>
+ *
+ * <p>
+ * Unbekannte Werte werden beim ersten Schreiben über die Connection der laufenden Transaktion eingetragen
+ * ({@code ON CONFLICT DO NOTHING} bzw. {@code MERGE}), es wird also keine zweite Connection aus dem Pool
+ * belegt. Gleichzeitige Einträge desselben Werts regelt der Unique-Index ohne Sperre in der JVM. Neue Codes
+ * sind bis zum Commit nur in der eigenen Transaktion sichtbar; bei einem Rollback werden sie verworfen.
+ * </p>
+ *
+ * <p>
+ * Auch Abfrageparameter laufen durch {@link #code(String)}; der {@code CharakterService} prüft
+ * Filterwerte deshalb vorher mit {@link #contains(String)}, damit Suchbegriffe das Wörterbuch nicht füllen.
+ * {@code contains} liest nur den Speicher: Werte, die eine andere Instanz nach dem Start einträgt, werden erst
+ * gefunden, wenn diese Instanz sie selbst liest oder schreibt.
+ * </p>
+ *
+ * <p>
+ * Hibernate erstellt für jedes Attribut eigene Converter-Instanzen; das Wörterbuch ist deshalb ein eigener
+ * Spring-Bean, den alle Converter und der {@code CharakterService} gemeinsam verwenden.
+ * </p>
+ */
+@Component
+public class CharakterWoerterbuch implements ApplicationRunner {
+
+    private static final String SELECT_ALL = "SELECT id, wert, schluessel FROM charakter_werte";
+    private static final String SELECT_ONE = "SELECT id, wert FROM charakter_werte WHERE schluessel = ?";
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO charakter_werte (wert, schluessel) VALUES (?, ?) ON CONFLICT (schluessel) DO NOTHING";
+    private static final String H2_INSERT =
+            "INSERT INTO charakter_werte (wert, schluessel) SELECT CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(100)) "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM charakter_werte WHERE schluessel = ?)";
+
+    /**
+     * Code für Werte, die in einer Nur-Lese-Transaktion nicht eingetragen werden können. Trifft keine Zeile,
+     * da die IDs von {@code charakter_werte} bei 1 beginnen.
+     */
+    private static final int UNBEKANNT = -1;
+
+    private final DataSource dataSource;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final Map<Integer, String> werte = new ConcurrentHashMap<>();
+
+    /**
+     * Erstellt das Wörterbuch.
+     *
+     * @param dataSource DataSource für das Lesen und Ergänzen des Wörterbuchs
+     */
+    public CharakterWoerterbuch(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Lädt das Wörterbuch beim Start.
+     *
+     * @param args Startargumente (nicht verwendet)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    /**
+     * Liefert den Code eines Werts und trägt unbekannte Werte in schreibenden Transaktionen ein.
+     *
+     * @param wert der Wert (case-insensitive)
+     * @return der Code, {@code null} für {@code null}
+     */
+    public Integer code(String wert) {
+        if (wert == null) {
+            return null;
+        }
+        String key = key(wert);
+        Integer code = codes.get(key);
+        if (code == null) {
+            code = pending().codes.get(key);
+        }
+        return code != null ? code : register(wert, key);
+    }
+
+    /**
+     * Liefert den Wert zu einem Code.
+     *
+     * @param code der Code
+     * @return der Wert, {@code null} für {@code null}
+     * @throws IllegalStateException wenn der Code auch nach dem Neuladen unbekannt ist
+     */
+    public String wert(Integer code) {
+        if (code == null) {
+            return null;
+        }
+        String wert = werte.get(code);
+        if (wert == null) {
+            wert = pending().werte.get(code);
+        }
+        if (wert == null) {
+            reload(); // von einer anderen Instanz eingetragen
+            wert = werte.get(code);
+            if (wert == null) {
+                throw new IllegalStateException("Unbekannter Code in charakter_werte: " + code);
+            }
+        }
+        return wert;
+    }
+
+    /**
+     * Prüft, ob ein Wert im Wörterbuch existiert, ohne ihn einzutragen. Liest nur den Speicher.
+     *
+     * @param wert der gesuchte Wert (case-insensitive)
+     * @return true, wenn der Wert bekannt ist
+     */
+    public boolean contains(String wert) {
+        return wert != null && codes.containsKey(key(wert));
+    }
+
+    /**
+     * Trägt einen Wert über die Connection der laufenden Transaktion ein und liest seinen Code.
+     * In einer Nur-Lese-Transaktion wird nur gelesen.
+     */
+    private Integer register(String wert, String key) {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (!readOnly) {
+                insert(connection, wert, key);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_ONE)) {
+                statement.setString(1, key);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) {
+                        if (readOnly) {
+                            return UNBEKANNT;
+                        }
+                        throw new IllegalStateException("Wert konnte nicht in charakter_werte eingetragen werden: " + wert);
+                    }
+                    int code = rs.getInt(1);
+                    if (readOnly) {
+                        remember(code, rs.getString(2), key);
+                    } else {
+                        rememberAfterCommit(code, rs.getString(2), key);
+                    }
+                    return code;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Wert konnte nicht in charakter_werte eingetragen werden: " + wert, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void insert(Connection connection, String wert, String key) throws SQLException {
+        boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        try (PreparedStatement statement = connection.prepareStatement(h2 ? H2_INSERT : POSTGRES_INSERT)) {
+            statement.setString(1, wert);
+            statement.setString(2, key);
+            if (h2) {
+                statement.setString(3, key);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Macht einen neuen Code nach dem Commit für alle sichtbar. Bis dahin gilt er nur in der eigenen Transaktion.
+     */
+    private void rememberAfterCommit(int code, String wert, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(code, wert, key);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending neu = new Pending();
+            TransactionSynchronizationManager.bindResource(this, neu);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    neu.werte.forEach((c, w) -> remember(c, w, key(w)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CharakterWoerterbuch.this);
+                }
+            });
+            pending = neu;
+        }
+        pending.codes.put(key, code);
+        pending.werte.put(code, wert);
+    }
+
+    /**
+     * Liefert die in der laufenden Transaktion eingetragenen, noch nicht committeten Codes.
+     */
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        return pending != null ? pending : Pending.EMPTY;
+    }
+
+    private void reload() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+             ResultSet rs = statement.executeQuery()) {
+            Pending pending = pending();
+            while (rs.next()) {
+                // eigene, noch nicht committete Einträge bleiben bis zum Commit privat
+                if (!pending.werte.containsKey(rs.getInt(1))) {
+                    remember(rs.getInt(1), rs.getString(2), rs.getString(3));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("charakter_werte konnte nicht gelesen werden", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void remember(int code, String wert, String key) {
+        werte.putIfAbsent(code, wert);
+        codes.putIfAbsent(key, code);
+    }
+
+    private static String key(String wert) {
+        return wert.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Neue, noch nicht committete Codes einer Transaktion.
+     */
+    private static final class Pending {
+
+        private static final Pending EMPTY = new Pending();
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final Map<Integer, String> werte = new HashMap<>();
+    }
+}
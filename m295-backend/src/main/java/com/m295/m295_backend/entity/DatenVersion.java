@@ -0,0 +1,79 @@
+package com.m295.m295_backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity-Klasse für den Datenstand der Charaktere und Favoriten.
+ * Die Tabelle "daten_version" hat eine Zeile pro {@link Bereich}; deren Version wird bei jedem
+ * Schreibzugriff auf den Bereich in derselben Transaktion um 1 erhöht und übersteht so auch Neustarts.
+ */
+@Entity
+@Table(name = "daten_version")
+public class DatenVersion {
+
+    /**
+     * Bereiche mit eigenem Datenstand. Getrennte Zeilen, damit Schreibzugriffe auf Favoriten
+     * nicht auf die Zeilensperre der Charaktere warten und umgekehrt.
+     */
+    public enum Bereich {
+        CHARAKTERE(1L),
+        FAVORITEN(2L);
+
+        private final long id;
+
+        Bereich(long id) {
+            this.id = id;
+        }
+
+        /**
+         * Liefert die ID der Zeile des Bereichs.
+         *
+         * @return die ID als long
+         */
+        public long id() {
+            return id;
+        }
+    }
+
+    @Id
+    // ID des Bereichs
+    private Long id;
+
+    @Column(nullable = false)
+    // monoton steigender Datenstand
+    private long version;
+
+    /**
+     * Standard-Konstruktor für JPA.
+     */
+    public DatenVersion() {}
+
+    /**
+     * Konstruktor für die erste Zeile eines Bereichs.
+     *
+     * @param bereich Bereich der Zeile
+     * @param version Startwert der Version
+     */
+    public DatenVersion(Bereich bereich, long version) {
+        this.id = bereich.id();
+        this.version = version;
+    }
+
+    /**
+     * Liefert die ID der Zeile.
+     *
+     * @return die ID als Long
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Liefert den aktuellen Datenstand.
+     *
+     * @return Version als long
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -7,7 +7,8 @@ import jakarta.persistence.*;
  * Repräsentiert einen Charakter, der als Favorit markiert wurde.
  */
 @Entity
-@Table(name = "favoriten")
+@Table(name = "favoriten",
+        uniqueConstraints = @UniqueConstraint(name = "uk_favoriten_charakter_id", columnNames = "charakter_id"))
 public class Favorit {
 
     /**
@@ -19,8 +20,9 @@ public class Favorit {
 
     /**
      * Die ID des Charakters, der favorisiert wurde.
+     * Eindeutig, damit pro Charakter nur ein Favorit existiert.
      */
-    @Column(nullable = false)
+    @Column(name = "charakter_id", nullable = false)
     private Long charakterId;
 
     /**
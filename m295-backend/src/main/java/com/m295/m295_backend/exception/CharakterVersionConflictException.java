@@ -0,0 +1,43 @@
+package com.m295.m295_backend.exception;
+
+/**
+ * Exception, die geworfen wird, wenn ein Charakter inzwischen von jemand anderem
+ * geändert wurde und die erwartete Version (If-Match) nicht mehr stimmt.
+ *
+ * Diese Exception führt zu HTTP 412 (Precondition Failed).
+ */
+public class CharakterVersionConflictException extends RuntimeException {
+
+    private final Long charakterId;
+    private final Long expectedVersion;
+
+    /**
+     * Erzeugt eine neue {@code CharakterVersionConflictException}.
+     *
+     * @param charakterId     Die ID des Charakters
+     * @param expectedVersion Die vom Client erwartete Version
+     */
+    public CharakterVersionConflictException(Long charakterId, Long expectedVersion) {
+        super("Charakter with id " + charakterId + " is no longer at version " + expectedVersion);
+        this.charakterId = charakterId;
+        this.expectedVersion = expectedVersion;
+    }
+
+    /**
+     * Gibt die ID des Charakters zurück.
+     *
+     * @return Die Charakter-ID.
+     */
+    public Long getCharakterId() {
+        return charakterId;
+    }
+
+    /**
+     * Gibt die vom Client erwartete Version zurück.
+     *
+     * @return Die erwartete Version.
+     */
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
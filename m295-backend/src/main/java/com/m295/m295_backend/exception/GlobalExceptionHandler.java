@@ -7,6 +7,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 import org.springframework.validation.FieldError;
 import java.util.HashMap;
 import java.util.Map;
@@ -40,6 +41,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Behandelt CharakterVersionConflictException und gibt HTTP 412 zurück.
+     *
+     * @param ex      Gefangene CharakterVersionConflictException
+     * @param request Aktueller HTTP-Request
+     * @return ResponseEntity mit ErrorResponseDTO und Status 412
+     */
+    @ExceptionHandler(CharakterVersionConflictException.class)
+    public ResponseEntity<ErrorResponseDTO> handleCharakterVersionConflict(CharakterVersionConflictException ex, WebRequest request) {
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "CHARACTER_VERSION_CONFLICT",
+                "Charakter mit ID " + ex.getCharakterId() + " wurde inzwischen geändert (erwartete Version "
+                        + ex.getExpectedVersion() + ")",
+                412,
+                extractPath(request)
+        );
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
     /**
      * Behandelt InvalidCharakterDataException und gibt HTTP 400 zurück.
      *
@@ -94,6 +114,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Behandelt Anfragen an Pfade ohne Controller oder Ressource (z.B. {@code /actuator/*} auf dem
+     * Anwendungs-Port) und gibt HTTP 404 statt 500 zurück.
+     *
+     * @param ex      Gefangene NoResourceFoundException
+     * @param request Aktueller HTTP-Request
+     * @return ResponseEntity mit ErrorResponseDTO und Status 404
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleNoResourceFound(NoResourceFoundException ex, WebRequest request) {
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                "NOT_FOUND",
+                "Der angeforderte Pfad existiert nicht",
+                404,
+                extractPath(request)
+        );
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
     /**
      * Fallback-Handler für alle anderen Exceptions.
      * Gibt HTTP 500 zurück ohne technische Details im Response-Body.
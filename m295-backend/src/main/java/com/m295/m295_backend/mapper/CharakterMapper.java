@@ -16,6 +16,11 @@ import java.util.stream.Collectors;
  * </p>
  */
 public class CharakterMapper {
+    /**
+     * Kopfzeile für den CSV-Export, passend zu {@link #toCsvLine(CharakterDTO)}.
+     */
+    public static final String CSV_HEADER = "id,name,status,species,gender,origin";
+
     /**
      * Konvertiert eine Charakter-Entity in ein CharakterDTO.
      *
@@ -120,4 +125,30 @@ public class CharakterMapper {
 
         return charakter;
     }
-}
\ No newline at end of file
+
+    /**
+     * Konvertiert ein CharakterDTO in eine CSV-Zeile (ohne Zeilenumbruch).
+     * Werte mit Komma, Anführungszeichen oder Zeilenumbruch werden nach RFC 4180 maskiert.
+     *
+     * @param dto Das zu konvertierende DTO
+     * @return Die CSV-Zeile in der Reihenfolge von {@link #CSV_HEADER}
+     */
+    public static String toCsvLine(CharakterDTO dto) {
+        return (dto.getId() == null ? "" : dto.getId().toString()) + ','
+                + csvValue(dto.getName()) + ','
+                + csvValue(dto.getStatus()) + ','
+                + csvValue(dto.getSpecies()) + ','
+                + csvValue(dto.getGender()) + ','
+                + csvValue(dto.getOrigin());
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,21 @@
+package com.m295.m295_backend.repository;
+
+/**
+ * Projektion mit ID und Name eines Charakters, z.B. für den Aufbau des Namens-Suchindex.
+ */
+public interface CharakterNameView {
+
+    /**
+     * Gibt die ID des Charakters zurück.
+     *
+     * @return die ID
+     */
+    Long getId();
+
+    /**
+     * Gibt den Namen des Charakters zurück.
+     *
+     * @return der Name
+     */
+    String getName();
+}
@@ -0,0 +1,22 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.entity.Charakter;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Repository-Fragment für Abfragen, die direkt in DTOs selektieren.
+ * Es werden keine Entities geladen, der Persistence-Context bleibt leer (keine Snapshots, kein Dirty-Checking).
+ */
+public interface CharakterProjectionRepository {
+
+    /**
+     * Findet alle Charaktere, die der Specification entsprechen, als DTOs, nach ID sortiert.
+     *
+     * @param spec Filter als Specification
+     * @return Liste der passenden Charaktere als DTOs
+     */
+    List<CharakterDTO> findDtos(Specification<Charakter> spec);
+}
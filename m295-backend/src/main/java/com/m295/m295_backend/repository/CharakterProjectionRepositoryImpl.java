@@ -0,0 +1,39 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.entity.Charakter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Implementierung von {@link CharakterProjectionRepository} mit der Criteria-API
+ * ({@code SELECT new CharakterDTO(...)} über {@link CriteriaBuilder#construct}).
+ */
+public class CharakterProjectionRepositoryImpl implements CharakterProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CharakterDTO> findDtos(Specification<Charakter> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CharakterDTO> query = cb.createQuery(CharakterDTO.class);
+        Root<Charakter> root = query.from(Charakter.class);
+        query.select(cb.construct(CharakterDTO.class,
+                root.get("id"), root.get("name"), root.get("status"),
+                root.get("gender"), root.get("origin"), root.get("species")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -1,11 +1,22 @@
 package com.m295.m295_backend.repository;
 
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.dto.CharakterFormDTO;
 import com.m295.m295_backend.entity.Charakter;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository-Schnittstelle für die Verwaltung von {@link Charakter}-Entitäten.
@@ -13,64 +24,97 @@ import java.util.List;
  * Bietet CRUD-Operationen sowie spezielle Such- und Zählmethoden basierend auf
  * Charaktereigenschaften wie Species, Status, Gender und Origin.
  * </p>
+ * <p>
+ * Dynamische Abfragen (z.B. kombinierte Filter) werden über
+ * {@link JpaSpecificationExecutor} und {@link CharakterSpecifications} gebaut.
+ * </p>
+ * <p>
+ * Lesende Listen-Abfragen selektieren direkt in DTOs ({@code SELECT new ...}, {@link CharakterProjectionRepository}),
+ * damit keine verwalteten Entities mit Snapshots entstehen.
+ * </p>
  */
 @Repository
-public interface CharakterRepository extends JpaRepository<Charakter, Long> {
+public interface CharakterRepository extends JpaRepository<Charakter, Long>, JpaSpecificationExecutor<Charakter>,
+        CharakterProjectionRepository {
+
+    /**
+     * Gemeinsamer Anfang der Abfragen, die direkt in {@link CharakterDTO} selektieren.
+     */
+    String DTO_SELECT = "SELECT new com.m295.m295_backend.dto.CharakterDTO("
+            + "c.id, c.name, c.status, c.gender, c.origin, c.species) FROM Charakter c ";
+
+    /**
+     * Gemeinsamer Anfang der Abfragen, die direkt in {@link CharakterFormDTO} selektieren.
+     */
+    String FORM_DTO_SELECT = "SELECT new com.m295.m295_backend.dto.CharakterFormDTO("
+            + "c.id, c.name, c.status, c.gender, c.origin, c.species) FROM Charakter c ";
+
     /**
-     * Findet alle Charaktere einer bestimmten Spezies (case-insensitive).
+     * Findet alle Charaktere einer bestimmten Spezies.
+     * Spezies, Status, Geschlecht und Herkunft sind als Codes gespeichert
+     * ({@link com.m295.m295_backend.entity.CharakterWoerterbuch}); der Vergleich ist ein
+     * exakter Integer-Vergleich auf dem Code. Gross-/Kleinschreibung spielt trotzdem keine Rolle,
+     * weil der Converter jeden Wert über seinen normalisierten Schlüssel auf denselben Code abbildet.
      *
      * @param species Die gesuchte Spezies
      * @return Liste der passenden Charaktere
      */
-    List<Charakter> findBySpeciesIgnoreCase(String species);
+    @Query("SELECT c FROM Charakter c WHERE c.species = :species")
+    List<Charakter> findBySpecies(@Param("species") String species);
 
     /**
-     * Findet alle Charaktere mit einem bestimmten Status (case-insensitive).
+     * Findet alle Charaktere mit einem bestimmten Status.
      *
      * @param status Der gesuchte Status
      * @return Liste der passenden Charaktere
      */
-    List<Charakter> findByStatusIgnoreCase(String status);
+    @Query("SELECT c FROM Charakter c WHERE c.status = :status")
+    List<Charakter> findByStatus(@Param("status") String status);
 
     /**
-     * Findet alle Charaktere eines bestimmten Geschlechts (case-insensitive).
+     * Findet alle Charaktere eines bestimmten Geschlechts.
      *
      * @param gender Das gesuchte Geschlecht
      * @return Liste der passenden Charaktere
      */
-    List<Charakter> findByGenderIgnoreCase(String gender);
+    @Query("SELECT c FROM Charakter c WHERE c.gender = :gender")
+    List<Charakter> findByGender(@Param("gender") String gender);
 
     /**
-     * Findet alle Charaktere mit einem bestimmten Ursprung (case-insensitive).
+     * Findet alle Charaktere mit einem bestimmten Ursprung.
      *
      * @param origin Der gesuchte Ursprung
      * @return Liste der passenden Charaktere
      */
-    List<Charakter> findByOriginIgnoreCase(String origin);
+    @Query("SELECT c FROM Charakter c WHERE c.origin = :origin")
+    List<Charakter> findByOrigin(@Param("origin") String origin);
 
     /**
-     * Zählt die Anzahl der Charaktere einer bestimmten Spezies (case-insensitive).
+     * Zählt die Anzahl der Charaktere einer bestimmten Spezies.
      *
      * @param species Die Spezies
      * @return Anzahl der Charaktere
      */
-    long countBySpeciesIgnoreCase(String species);
+    @Query("SELECT COUNT(c) FROM Charakter c WHERE c.species = :species")
+    long countBySpecies(@Param("species") String species);
 
     /**
-     * Zählt die Anzahl der Charaktere mit einem bestimmten Status (case-insensitive).
+     * Zählt die Anzahl der Charaktere mit einem bestimmten Status.
      *
      * @param status Der Status
      * @return Anzahl der Charaktere
      */
-    long countByStatusIgnoreCase(String status);
+    @Query("SELECT COUNT(c) FROM Charakter c WHERE c.status = :status")
+    long countByStatus(@Param("status") String status);
 
     /**
-     * Zählt die Anzahl der Charaktere eines bestimmten Geschlechts (case-insensitive).
+     * Zählt die Anzahl der Charaktere eines bestimmten Geschlechts.
      *
      * @param gender Das Geschlecht
      * @return Anzahl der Charaktere
      */
-    long countByGenderIgnoreCase(String gender);
+    @Query("SELECT COUNT(c) FROM Charakter c WHERE c.gender = :gender")
+    long countByGender(@Param("gender") String gender);
 
     /**
      * Findet alle Charaktere, deren Name einen bestimmten Suchbegriff enthält (case-insensitive).
@@ -105,4 +149,222 @@ public interface CharakterRepository extends JpaRepository<Charakter, Long> {
     @Query("SELECT DISTINCT c.origin FROM Charakter c")
     List<String> findDistinctOrigin();
 
-}
\ No newline at end of file
+    /**
+     * Streamt alle Charaktere nach ID sortiert direkt als DTOs, z.B. für Exporte.
+     * Es werden keine Entities geladen; der Treiber holt die Zeilen in Blöcken (Fetch-Size).
+     * Muss innerhalb einer Transaktion konsumiert und danach geschlossen werden.
+     *
+     * @return Stream aller Charaktere als DTOs
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "ORDER BY c.id")
+    Stream<CharakterDTO> streamAllAsDTO();
+
+    /**
+     * Lädt alle Charaktere nach ID sortiert direkt als DTOs.
+     *
+     * @return Liste aller Charaktere als DTOs
+     */
+    @Query(DTO_SELECT + "ORDER BY c.id")
+    List<CharakterDTO> findAllAsDTO();
+
+    /**
+     * Lädt alle Charaktere nach ID sortiert direkt als FormDTOs.
+     *
+     * @return Liste aller Charaktere als FormDTOs
+     */
+    @Query(FORM_DTO_SELECT + "ORDER BY c.id")
+    List<CharakterFormDTO> findAllAsFormDTO();
+
+    /**
+     * Lädt eine Seite (Keyset) direkt als DTOs.
+     *
+     * @param after ID des letzten Elements der vorherigen Seite (0 für die erste Seite)
+     * @param limit maximale Anzahl Elemente
+     * @return Charaktere mit ID grösser als {@code after}, nach ID sortiert
+     */
+    @Query(DTO_SELECT + "WHERE c.id > :after ORDER BY c.id")
+    List<CharakterDTO> findDtoPageAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Lädt eine Seite (Keyset) direkt als FormDTOs.
+     *
+     * @param after ID des letzten Elements der vorherigen Seite (0 für die erste Seite)
+     * @param limit maximale Anzahl Elemente
+     * @return Charaktere mit ID grösser als {@code after}, nach ID sortiert
+     */
+    @Query(FORM_DTO_SELECT + "WHERE c.id > :after ORDER BY c.id")
+    List<CharakterFormDTO> findFormDtoPageAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Lädt die Charaktere mit den angegebenen IDs direkt als DTOs (Reihenfolge nicht garantiert).
+     *
+     * @param ids IDs der Charaktere
+     * @return gefundene Charaktere als DTOs
+     */
+    @Query(DTO_SELECT + "WHERE c.id IN :ids")
+    List<CharakterDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Liefert die kleinste vorhandene Charakter-ID (Index-Zugriff).
+     *
+     * @return kleinste ID oder null, wenn die Tabelle leer ist
+     */
+    @Query("SELECT MIN(c.id) FROM Charakter c")
+    Long findMinId();
+
+    /**
+     * Liefert die grösste vorhandene Charakter-ID (Index-Zugriff).
+     *
+     * @return grösste ID oder null, wenn die Tabelle leer ist
+     */
+    @Query("SELECT MAX(c.id) FROM Charakter c")
+    Long findMaxId();
+
+    /**
+     * Zählt alle Charaktere gruppiert nach Spezies.
+     *
+     * @return eine Zeile pro Spezies mit Anzahl
+     */
+    @Query("SELECT c.species AS wert, COUNT(c) AS anzahl FROM Charakter c GROUP BY c.species")
+    List<FacetCount> countGroupedBySpecies();
+
+    /**
+     * Zählt alle Charaktere gruppiert nach Status.
+     *
+     * @return eine Zeile pro Status mit Anzahl
+     */
+    @Query("SELECT c.status AS wert, COUNT(c) AS anzahl FROM Charakter c GROUP BY c.status")
+    List<FacetCount> countGroupedByStatus();
+
+    /**
+     * Zählt alle Charaktere gruppiert nach Geschlecht.
+     *
+     * @return eine Zeile pro Geschlecht mit Anzahl
+     */
+    @Query("SELECT c.gender AS wert, COUNT(c) AS anzahl FROM Charakter c GROUP BY c.gender")
+    List<FacetCount> countGroupedByGender();
+
+    /**
+     * Zählt alle Charaktere gruppiert nach Herkunft.
+     *
+     * @return eine Zeile pro Herkunft mit Anzahl
+     */
+    @Query("SELECT c.origin AS wert, COUNT(c) AS anzahl FROM Charakter c GROUP BY c.origin")
+    List<FacetCount> countGroupedByOrigin();
+
+    /**
+     * Lädt ID und Name der Charaktere nach dem Cursor, sortiert nach ID (Keyset-Paginierung).
+     * Wird zum seitenweisen Aufbau des Namens-Suchindex verwendet.
+     *
+     * @param after Cursor (ID des letzten Elements der vorherigen Seite)
+     * @param limit maximale Anzahl Ergebnisse
+     * @return Liste mit ID und Name
+     */
+    @Query("SELECT c.id AS id, c.name AS name FROM Charakter c WHERE c.id > :after ORDER BY c.id")
+    List<CharakterNameView> findNamesAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Ändert alle Charaktere, die dem Filter entsprechen, mit einem einzigen UPDATE-Statement.
+     * Null-Filter werden ignoriert, null-Werte lassen das jeweilige Feld unverändert.
+     *
+     * @param species    Spezies-Filter (optional)
+     * @param status     Status-Filter (optional)
+     * @param gender     Geschlecht-Filter (optional)
+     * @param origin     Herkunfts-Filter (optional)
+     * @param newStatus  neuer Status (optional)
+     * @param newSpecies neue Spezies (optional)
+     * @param newGender  neues Geschlecht (optional)
+     * @param newOrigin  neue Herkunft (optional)
+     * @return Anzahl geänderter Zeilen
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Charakter c SET "
+            + "c.status = COALESCE(:newStatus, c.status), "
+            + "c.species = COALESCE(:newSpecies, c.species), "
+            + "c.gender = COALESCE(:newGender, c.gender), "
+            + "c.origin = COALESCE(:newOrigin, c.origin), "
+            + "c.version = c.version + 1 "
+            + "WHERE (:species IS NULL OR c.species = :species) "
+            + "AND (:status IS NULL OR c.status = :status) "
+            + "AND (:gender IS NULL OR c.gender = :gender) "
+            + "AND (:origin IS NULL OR c.origin = :origin)")
+    int updateByFilter(@Param("species") String species, @Param("status") String status,
+                       @Param("gender") String gender, @Param("origin") String origin,
+                       @Param("newStatus") String newStatus, @Param("newSpecies") String newSpecies,
+                       @Param("newGender") String newGender, @Param("newOrigin") String newOrigin);
+
+    /**
+     * Löscht alle Charaktere, die dem Filter entsprechen, mit einem einzigen DELETE-Statement.
+     * Null-Filter werden ignoriert.
+     *
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @return Anzahl gelöschter Zeilen
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Charakter c "
+            + "WHERE (:species IS NULL OR c.species = :species) "
+            + "AND (:status IS NULL OR c.status = :status) "
+            + "AND (:gender IS NULL OR c.gender = :gender) "
+            + "AND (:origin IS NULL OR c.origin = :origin)")
+    int deleteByFilter(@Param("species") String species, @Param("status") String status,
+                       @Param("gender") String gender, @Param("origin") String origin);
+
+    /**
+     * Aktualisiert einen Charakter mit einem einzigen UPDATE-Statement, ohne ihn vorher zu laden.
+     * Die Version wird um 1 erhöht. Ist {@code version} gesetzt, wird nur aktualisiert,
+     * wenn die gespeicherte Version übereinstimmt (optimistisches Locking).
+     *
+     * @param id      ID des Charakters
+     * @param version erwartete Version oder null, um ohne Versionsprüfung zu aktualisieren
+     * @param name    neuer Name
+     * @param status  neuer Status
+     * @param species neue Spezies
+     * @param gender  neues Geschlecht
+     * @param origin  neue Herkunft
+     * @return Anzahl geänderter Zeilen (0, wenn die ID fehlt oder die Version nicht passt)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Charakter c SET c.name = :name, c.status = :status, c.species = :species, "
+            + "c.gender = :gender, c.origin = :origin, c.version = c.version + 1 "
+            + "WHERE c.id = :id AND (:version IS NULL OR c.version = :version)")
+    int updateById(@Param("id") Long id, @Param("version") Long version,
+                   @Param("name") String name, @Param("status") String status,
+                   @Param("species") String species, @Param("gender") String gender,
+                   @Param("origin") String origin);
+
+    /**
+     * Liest nur die Version eines Charakters (Primärschlüssel-Zugriff), z.B. nach {@link #updateById}
+     * ohne erwartete Version.
+     *
+     * @param id ID des Charakters
+     * @return Version oder null, wenn die ID nicht existiert
+     */
+    @Query("SELECT c.version FROM Charakter c WHERE c.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    /**
+     * Löscht einen Charakter mit einem einzigen DELETE-Statement, ohne ihn vorher zu laden.
+     *
+     * @param id ID des Charakters
+     * @return Anzahl gelöschter Zeilen (0, wenn die ID nicht existiert)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Charakter c WHERE c.id = :id")
+    int removeById(@Param("id") Long id);
+
+    /**
+     * Löscht alle Charaktere mit den angegebenen IDs mit einem einzigen DELETE-Statement.
+     * Unbekannte IDs werden ignoriert.
+     *
+     * @param ids IDs der Charaktere
+     * @return Anzahl gelöschter Zeilen
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Charakter c WHERE c.id IN :ids")
+    int removeByIdIn(@Param("ids") Collection<Long> ids);
+
+}
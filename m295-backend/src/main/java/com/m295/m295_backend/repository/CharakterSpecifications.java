@@ -0,0 +1,67 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.entity.Charakter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sammlung von {@link Specification}s für dynamische Abfragen auf {@link Charakter}.
+ * <p>
+ * Die Filter werden direkt in die WHERE-Klausel übersetzt, damit nur passende
+ * Zeilen aus der Datenbank geladen werden.
+ * </p>
+ */
+public final class CharakterSpecifications {
+
+    private CharakterSpecifications() {
+        // Nur statische Methoden
+    }
+
+    /**
+     * Baut einen kombinierten Filter aus den übergebenen Parametern.
+     * Null-Werte werden ignoriert, alle anderen werden mit UND verknüpft
+     * und case-insensitive verglichen.
+     *
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @return Specification mit allen gesetzten Filtern
+     */
+    public static Specification<Charakter> filter(String species, String status, String gender, String origin) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addEquals(predicates, cb, root.get("species"), species);
+            addEquals(predicates, cb, root.get("status"), status);
+            addEquals(predicates, cb, root.get("gender"), gender);
+            addEquals(predicates, cb, root.get("origin"), origin);
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Filtert Charaktere mit einer ID grösser oder gleich dem angegebenen Wert.
+     *
+     * @param id untere Grenze (inklusive)
+     * @return Specification für {@code id >= :id}
+     */
+    public static Specification<Charakter> idAtLeast(long id) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("id"), id);
+    }
+
+    private static void addEquals(List<Predicate> predicates,
+                                            CriteriaBuilder cb,
+                                            Path<String> path,
+                                            String value) {
+        if (value == null) {
+            return;
+        }
+        // Codes aus dem Wörterbuch: case-insensitive per Definition, Vergleich als Integer
+        predicates.add(cb.equal(path, value));
+    }
+}
@@ -0,0 +1,47 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.entity.DatenVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository-Schnittstelle für den Datenstand ({@link DatenVersion}).
+ */
+@Repository
+public interface DatenVersionRepository extends JpaRepository<DatenVersion, Long> {
+
+    /**
+     * Erhöht die Version eines Bereichs um 1. Die Zeile bleibt bis zum Ende der Transaktion gesperrt.
+     *
+     * @param id ID des Bereichs ({@link DatenVersion.Bereich#id()})
+     * @return Anzahl geänderter Zeilen (0, wenn die Zeile noch nicht existiert)
+     */
+    @Modifying
+    @Query("UPDATE DatenVersion d SET d.version = d.version + 1 WHERE d.id = :id")
+    int increment(@Param("id") long id);
+
+    /**
+     * Legt die Zeile eines Bereichs mit Version 0 an, falls sie fehlt. Läuft in PostgreSQL und H2.
+     *
+     * @param id ID des Bereichs ({@link DatenVersion.Bereich#id()})
+     * @return Anzahl eingefügter Zeilen (0, wenn die Zeile schon existiert)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daten_version (id, version) SELECT :id, 0 "
+            + "WHERE NOT EXISTS (SELECT 1 FROM daten_version WHERE id = :id)", nativeQuery = true)
+    int insertIfMissing(@Param("id") long id);
+
+    /**
+     * Liest die aktuelle Version eines Bereichs direkt aus der Datenbank.
+     *
+     * @param id ID des Bereichs ({@link DatenVersion.Bereich#id()})
+     * @return Optional mit der Version, leer wenn die Zeile noch nicht existiert
+     */
+    @Query("SELECT d.version FROM DatenVersion d WHERE d.id = :id")
+    Optional<Long> findVersion(@Param("id") long id);
+}
@@ -0,0 +1,22 @@
+package com.m295.m295_backend.repository;
+
+/**
+ * Projektion für eine gruppierte Zählabfrage (GROUP BY).
+ * Enthält einen Attributwert und die Anzahl der Charaktere mit diesem Wert.
+ */
+public interface FacetCount {
+
+    /**
+     * Gibt den gruppierten Attributwert zurück (z.B. "Mensch").
+     *
+     * @return der Attributwert
+     */
+    String getWert();
+
+    /**
+     * Gibt die Anzahl der Charaktere mit diesem Wert zurück.
+     *
+     * @return die Anzahl
+     */
+    long getAnzahl();
+}
@@ -2,12 +2,65 @@ package com.m295.m295_backend.repository;
 
 import com.m295.m295_backend.entity.Favorit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository-Schnittstelle für Favoriten.
  * Bietet CRUD-Methoden für den Zugriff auf die Datenbank.
+ * Das Speichern läuft über {@link FavoritUpsertRepository#upsert(Favorit)}.
  */
 @Repository
-public interface FavoritCharakterRepository extends JpaRepository<Favorit, Long> {
-}
\ No newline at end of file
+public interface FavoritCharakterRepository extends JpaRepository<Favorit, Long>, FavoritUpsertRepository {
+
+    /**
+     * Sucht den Favoriten eines Charakters (Index-Zugriff über {@code charakter_id}).
+     *
+     * @param charakterId ID des Charakters
+     * @return Optional mit dem Favoriten, leer wenn der Charakter kein Favorit ist
+     */
+    Optional<Favorit> findByCharakterId(Long charakterId);
+
+    /**
+     * Prüft, ob ein Charakter als Favorit markiert ist.
+     *
+     * @param charakterId ID des Charakters
+     * @return true, wenn ein Favorit existiert
+     */
+    boolean existsByCharakterId(Long charakterId);
+
+    /**
+     * Entfernt den Favoriten eines Charakters mit einem einzigen DELETE-Statement.
+     *
+     * @param charakterId ID des Charakters
+     * @return Anzahl gelöschter Zeilen (0 oder 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Favorit f WHERE f.charakterId = :charakterId")
+    int removeByCharakterId(@Param("charakterId") Long charakterId);
+
+    /**
+     * Entfernt die Favoriten mehrerer Charaktere mit einem einzigen DELETE-Statement.
+     *
+     * @param charakterIds IDs der Charaktere
+     * @return Anzahl gelöschter Zeilen
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Favorit f WHERE f.charakterId IN :charakterIds")
+    int removeByCharakterIdIn(@Param("charakterIds") Collection<Long> charakterIds);
+
+    /**
+     * Lädt alle Favoriten zusammen mit dem aktuellen Charakter in einer einzigen Abfrage (LEFT JOIN).
+     * Jede Zeile enthält {@code [Favorit, Charakter]}, der Charakter ist null, wenn er gelöscht wurde.
+     *
+     * @return Liste von Paaren aus Favorit und aktuellem Charakter
+     */
+    @Query("SELECT f, c FROM Favorit f LEFT JOIN Charakter c ON c.id = f.charakterId ORDER BY f.id")
+    List<Object[]> findAllWithCharakter();
+}
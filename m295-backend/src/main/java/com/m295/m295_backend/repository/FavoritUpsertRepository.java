@@ -0,0 +1,29 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.entity.Favorit;
+
+import java.util.Collection;
+
+/**
+ * Repository-Fragment für das Speichern von Favoriten per Upsert.
+ * Pro Charakter gibt es höchstens einen Favoriten (eindeutiger Index auf {@code charakter_id}).
+ */
+public interface FavoritUpsertRepository {
+
+    /**
+     * Legt einen Favoriten an oder aktualisiert den bestehenden Favoriten desselben Charakters.
+     * Läuft als einzelnes Statement, wiederholtes Speichern erzeugt keine Duplikate.
+     *
+     * @param favorit Favorit mit gesetzter charakterId
+     * @return der gespeicherte Favorit mit ID
+     */
+    Favorit upsert(Favorit favorit);
+
+    /**
+     * Legt mehrere Favoriten an oder aktualisiert sie, als JDBC-Batch mit demselben Statement wie
+     * {@link #upsert(Favorit)}. Die IDs werden nicht zurückgelesen. Jede charakterId darf nur einmal vorkommen.
+     *
+     * @param favoriten Favoriten mit gesetzter charakterId
+     */
+    void upsertAll(Collection<Favorit> favoriten);
+}
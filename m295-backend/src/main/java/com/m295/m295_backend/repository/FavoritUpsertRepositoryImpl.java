@@ -0,0 +1,149 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.entity.Favorit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+/**
+ * Implementierung von {@link FavoritUpsertRepository}.
+ * Nutzt je nach Datenbank {@code INSERT ... ON CONFLICT DO UPDATE} (PostgreSQL)
+ * oder {@code MERGE INTO ... KEY} (H2, z.B. in Tests).
+ * Entscheidend ist das Produkt der JDBC-Verbindung, nicht der konfigurierte Hibernate-Dialekt,
+ * da die Tests mit H2 laufen, aber den PostgreSQL-Dialekt aus application.properties erben.
+ * Die Datenbank wird einmal beim Start ermittelt; bei einer nicht unterstützten Datenbank startet
+ * die Anwendung nicht.
+ */
+public class FavoritUpsertRepositoryImpl implements FavoritUpsertRepository {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO favoriten (charakter_id, name, status, image, species, gender, origin) "
+                    + "VALUES (:charakterId, :name, :status, :image, :species, :gender, :origin) "
+                    + "ON CONFLICT (charakter_id) DO UPDATE SET name = EXCLUDED.name, status = EXCLUDED.status, "
+                    + "image = EXCLUDED.image, species = EXCLUDED.species, gender = EXCLUDED.gender, "
+                    + "origin = EXCLUDED.origin "
+                    + "RETURNING id";
+
+    private static final String POSTGRES_UPSERT_BATCH =
+            "INSERT INTO favoriten (charakter_id, name, status, image, species, gender, origin) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (charakter_id) DO UPDATE SET name = EXCLUDED.name, status = EXCLUDED.status, "
+                    + "image = EXCLUDED.image, species = EXCLUDED.species, gender = EXCLUDED.gender, "
+                    + "origin = EXCLUDED.origin";
+
+    private static final String H2_UPSERT_BATCH =
+            "MERGE INTO favoriten (charakter_id, name, status, image, species, gender, origin) KEY (charakter_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Anzahl Statements pro JDBC-Batch, wie {@code hibernate.jdbc.batch_size}.
+     */
+    private static final int BATCH_SIZE = 100;
+
+    private static final String H2_UPSERT =
+            "SELECT id FROM FINAL TABLE (MERGE INTO favoriten "
+                    + "(charakter_id, name, status, image, species, gender, origin) KEY (charakter_id) "
+                    + "VALUES (:charakterId, :name, :status, :image, :species, :gender, :origin))";
+
+    /**
+     * Upsert-Statements einer unterstützten Datenbank.
+     */
+    private enum Dialekt {
+        POSTGRES(POSTGRES_UPSERT, POSTGRES_UPSERT_BATCH),
+        H2(H2_UPSERT, H2_UPSERT_BATCH);
+
+        private final String upsert;
+        private final String upsertBatch;
+
+        Dialekt(String upsert, String upsertBatch) {
+            this.upsert = upsert;
+            this.upsertBatch = upsertBatch;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Dialekt dialekt;
+
+    /**
+     * Ermittelt die verbundene Datenbank.
+     *
+     * @param dataSource DataSource der Anwendung
+     * @throws IllegalStateException wenn die Datenbank nicht unterstützt wird oder nicht erreichbar ist
+     */
+    public FavoritUpsertRepositoryImpl(DataSource dataSource) {
+        this.dialekt = dialekt(dataSource);
+    }
+
+    @Override
+    public Favorit upsert(Favorit favorit) {
+        if (favorit.getCharakterId() == null) {
+            throw new IllegalArgumentException("charakterId darf nicht null sein");
+        }
+        Query query = entityManager.createNativeQuery(dialekt.upsert)
+                .setParameter("charakterId", favorit.getCharakterId())
+                .setParameter("name", favorit.getName())
+                .setParameter("status", favorit.getStatus())
+                .setParameter("image", favorit.getImage())
+                .setParameter("species", favorit.getSpecies())
+                .setParameter("gender", favorit.getGender())
+                .setParameter("origin", favorit.getOrigin());
+        Number id = (Number) query.getSingleResult();
+        favorit.setId(id.longValue());
+        return favorit;
+    }
+
+    @Override
+    public void upsertAll(Collection<Favorit> favoriten) {
+        if (favoriten.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(dialekt.upsertBatch)) {
+                int count = 0;
+                for (Favorit favorit : favoriten) {
+                    statement.setLong(1, favorit.getCharakterId());
+                    statement.setString(2, favorit.getName());
+                    statement.setString(3, favorit.getStatus());
+                    statement.setString(4, favorit.getImage());
+                    statement.setString(5, favorit.getSpecies());
+                    statement.setString(6, favorit.getGender());
+                    statement.setString(7, favorit.getOrigin());
+                    statement.addBatch();
+                    if (++count % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (count % BATCH_SIZE != 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wählt die Upsert-Statements passend zur verbundenen Datenbank.
+     */
+    private static Dialekt dialekt(DataSource dataSource) {
+        String product;
+        try {
+            product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Datenbank für das Favoriten-Upsert konnte nicht ermittelt werden", e);
+        }
+        return switch (product) {
+            case "PostgreSQL" -> Dialekt.POSTGRES;
+            case "H2" -> Dialekt.H2;
+            default -> throw new IllegalStateException("Upsert wird für " + product + " nicht unterstützt");
+        };
+    }
+}
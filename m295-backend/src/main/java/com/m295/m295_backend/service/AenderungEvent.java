@@ -0,0 +1,27 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.dto.AenderungDTO;
+
+/**
+ * Wird von den Services bei jedem Schreibzugriff veröffentlicht und nach dem Commit
+ * vom {@link AenderungsFeed} an die verbundenen Clients verteilt.
+ *
+ * @param typ        Art der Änderung
+ * @param entitaet   betroffene Daten
+ * @param schluessel ID des betroffenen Eintrags oder {@code null} bei {@link AenderungDTO.Typ#RESET}
+ * @param daten      neuer Stand des Eintrags (DTO) oder {@code null}
+ */
+public record AenderungEvent(AenderungDTO.Typ typ, AenderungDTO.Entitaet entitaet, Long schluessel, Object daten) {
+
+    static AenderungEvent charakter(AenderungDTO.Typ typ, Long id, Object daten) {
+        return new AenderungEvent(typ, AenderungDTO.Entitaet.CHARAKTER, id, daten);
+    }
+
+    static AenderungEvent favorit(AenderungDTO.Typ typ, Long charakterId, Object daten) {
+        return new AenderungEvent(typ, AenderungDTO.Entitaet.FAVORIT, charakterId, daten);
+    }
+
+    static AenderungEvent charakterReset() {
+        return new AenderungEvent(AenderungDTO.Typ.RESET, AenderungDTO.Entitaet.CHARAKTER, null, null);
+    }
+}
@@ -0,0 +1,310 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.dto.AenderungDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verteilt Änderungen an Charakteren und Favoriten als Server-Sent Events ({@code GET /api/characters/changes}).
+ * <p>
+ * Die Services veröffentlichen bei jedem Schreibzugriff ein {@link AenderungEvent}. Erst nach dem Commit
+ * bekommt es eine fortlaufende ID, landet im Ringpuffer der letzten Ereignisse und in der Warteschlange
+ * jedes Clients. Gesendet wird auf eigenen Threads, ein langsamer Client hält also weder die
+ * schreibende Transaktion noch andere Clients auf. Mit {@code spring.threads.virtual.enabled=true} sind das
+ * virtuelle Threads, sonst ein fester Pool mit {@code app.changes.sender-threads} Threads. Ein Sende-Task
+ * schickt höchstens {@value #MAX_BATCH} Ereignisse und reiht sich dann neu ein, damit ein Client mit vielen
+ * Ereignissen die Pool-Threads nicht für sich behält.
+ * </p>
+ * <p>
+ * Jeder Client hat eine begrenzte Warteschlange. Ist sie voll, wird je nach {@code app.changes.overflow}
+ * das älteste Ereignis verworfen ({@code drop-oldest}, der Client erkennt die Lücke in den IDs) oder
+ * die Verbindung getrennt ({@code disconnect}, der Browser verbindet sich mit {@code Last-Event-ID} neu).
+ * Bleibt die Warteschlange auch bei {@code drop-oldest} voll, weil der Client nicht nachkommt, wird er nach
+ * {@code app.changes.max-dropped} verworfenen Ereignissen in Folge ebenfalls getrennt.
+ * </p>
+ * <p>
+ * Mit {@code Last-Event-ID} werden verpasste Ereignisse aus dem Ringpuffer nachgeliefert. Ist die ID nicht
+ * mehr im Puffer (zu alt oder vor einem Neustart), kommt stattdessen ein {@link AenderungDTO.Typ#RESET}.
+ * Die IDs beginnen beim Start mit dem Zeitstempel in Mikrosekunden, damit sie auch über Neustarts steigen.
+ * </p>
+ */
+@Component
+public class AenderungsFeed implements MeterBinder {
+
+    /**
+     * Maximale Anzahl Ereignisse, die ein Sende-Task am Stück an einen Client schickt.
+     */
+    static final int MAX_BATCH = 32;
+
+    /**
+     * Verhalten bei voller Warteschlange eines Clients.
+     */
+    public enum Ueberlauf {
+        /** Ältestes Ereignis verwerfen. */
+        DROP_OLDEST,
+        /** Verbindung trennen. */
+        DISCONNECT
+    }
+
+    private final AenderungDTO[] puffer;
+    private final int queueSize;
+    private final Ueberlauf ueberlauf;
+    private final int maxVerworfen;
+    private final long timeoutMillis;
+
+    /**
+     * ID des ersten Ereignisses seit dem Start.
+     */
+    private final long startId = System.currentTimeMillis() * 1000;
+
+    /**
+     * ID des nächsten Ereignisses, nur unter {@code synchronized (this)} verändert.
+     */
+    private long naechsteId = startId;
+
+    private final List<Abonnent> abonnenten = new CopyOnWriteArrayList<>();
+    private final AtomicLong verworfen = new AtomicLong();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+
+    /**
+     * Erstellt den Feed.
+     *
+     * @param bufferSize       Anzahl Ereignisse im Ringpuffer für {@code Last-Event-ID}
+     * @param queueSize        maximale Anzahl wartender Ereignisse pro Client
+     * @param overflow         {@code drop-oldest} oder {@code disconnect}
+     * @param heartbeatSeconds Abstand der Heartbeats, damit Proxys die Verbindung offen halten
+     * @param timeoutMinutes   maximale Dauer einer Verbindung, danach verbindet sich der Browser neu
+     * @param maxDropped       verworfene Ereignisse in Folge, nach denen ein Client getrennt wird
+     * @param senderThreads    Anzahl Sende-Threads ohne virtuelle Threads
+     * @param virtualThreads   {@code spring.threads.virtual.enabled}, sendet dann auf virtuellen Threads
+     */
+    public AenderungsFeed(@Value("${app.changes.buffer-size:1000}") int bufferSize,
+                          @Value("${app.changes.subscriber-queue-size:256}") int queueSize,
+                          @Value("${app.changes.overflow:drop-oldest}") String overflow,
+                          @Value("${app.changes.heartbeat-seconds:15}") long heartbeatSeconds,
+                          @Value("${app.changes.timeout-minutes:30}") long timeoutMinutes,
+                          @Value("${app.changes.max-dropped:1000}") int maxDropped,
+                          @Value("${app.changes.sender-threads:8}") int senderThreads,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.puffer = new AenderungDTO[bufferSize];
+        this.queueSize = queueSize;
+        this.ueberlauf = Ueberlauf.valueOf(overflow.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.maxVerworfen = maxDropped;
+
+        if (virtualThreads) {
+            this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("aenderungen-", 0).factory());
+        } else {
+            CustomizableThreadFactory senderThreadFactory = new CustomizableThreadFactory("aenderungen-");
+            senderThreadFactory.setDaemon(true);
+            // pro Client liegt höchstens ein Sende-Task in der Queue, ungenutzte Threads werden nach 60 s beendet
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), senderThreadFactory);
+            pool.allowCoreThreadTimeOut(true);
+            this.sender = pool;
+        }
+        CustomizableThreadFactory heartbeatThread = new CustomizableThreadFactory("aenderungen-heartbeat-");
+        heartbeatThread.setDaemon(true);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(heartbeatThread);
+        this.heartbeat.scheduleAtFixedRate(() -> abonnenten.forEach(Abonnent::heartbeat),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Verbindet einen Client mit dem Feed.
+     *
+     * @param lastEventId ID des zuletzt empfangenen Ereignisses oder {@code null} für nur neue Ereignisse
+     * @return der Emitter für die SSE-Antwort
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Abonnent abonnent = new Abonnent(emitter);
+        emitter.onCompletion(abonnent::schliessen);
+        emitter.onTimeout(abonnent::schliessen);
+        emitter.onError(e -> abonnent.schliessen());
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                long aelteste = Math.max(naechsteId - puffer.length, startId);
+                if (lastEventId < aelteste - 1 || lastEventId >= naechsteId || naechsteId - lastEventId - 1 > queueSize) {
+                    // nicht mehr im Puffer: Client muss neu laden und ab der aktuellen ID weiterlesen
+                    abonnent.anhaengen(new AenderungDTO(naechsteId - 1, AenderungDTO.Typ.RESET,
+                            AenderungDTO.Entitaet.CHARAKTER, null, null));
+                } else {
+                    for (long id = lastEventId + 1; id < naechsteId; id++) {
+                        abonnent.anhaengen(puffer[index(id)]);
+                    }
+                }
+            }
+            abonnenten.add(abonnent);
+        }
+        abonnent.planen();
+        return emitter;
+    }
+
+    /**
+     * Übernimmt eine Änderung nach dem Commit (oder sofort, falls keine Transaktion läuft)
+     * und verteilt sie an alle Clients. Bei einem Rollback wird nichts gesendet.
+     *
+     * @param event die Änderung
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAenderung(AenderungEvent event) {
+        synchronized (this) {
+            AenderungDTO aenderung = new AenderungDTO(naechsteId++, event.typ(), event.entitaet(),
+                    event.schluessel(), event.daten());
+            puffer[index(aenderung.getId())] = aenderung;
+            for (Abonnent abonnent : abonnenten) {
+                abonnent.anhaengen(aenderung);
+            }
+        }
+        abonnenten.forEach(Abonnent::planen);
+    }
+
+    /**
+     * Registriert die Anzahl verbundener Clients und verworfener Ereignisse als Metriken.
+     *
+     * @param registry die Micrometer-Registry
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("charakter.changes.subscribers", abonnenten, List::size)
+                .description("Verbundene Clients des Änderungs-Feeds")
+                .register(registry);
+        FunctionCounter.builder("charakter.changes.dropped", verworfen, AtomicLong::get)
+                .description("Wegen voller Warteschlange verworfene Ereignisse")
+                .register(registry);
+    }
+
+    /**
+     * Trennt alle Clients beim Herunterfahren.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        abonnenten.forEach(abonnent -> abonnent.emitter.complete());
+        sender.shutdown();
+    }
+
+    private int index(long id) {
+        return (int) Math.floorMod(id, (long) puffer.length);
+    }
+
+    /**
+     * Ein verbundener Client mit eigener, begrenzter Warteschlange.
+     * Es läuft höchstens ein Sende-Task gleichzeitig, die Reihenfolge bleibt also erhalten.
+     */
+    private final class Abonnent {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<AenderungDTO> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean laeuft = new AtomicBoolean();
+        private volatile boolean heartbeatFaellig;
+        /**
+         * Verworfene Ereignisse, seit die Warteschlange zuletzt leer war, nur unter der Sperre des Feeds verändert.
+         */
+        private int verworfenInFolge;
+        private volatile boolean geschlossen;
+
+        private Abonnent(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Hängt ein Ereignis an, wird nur unter der Sperre des Feeds aufgerufen.
+         */
+        private void anhaengen(AenderungDTO aenderung) {
+            if (geschlossen || queue.offer(aenderung)) {
+                return;
+            }
+            if (ueberlauf == Ueberlauf.DISCONNECT || verworfenInFolge >= maxVerworfen) {
+                trennen();
+                return;
+            }
+            queue.poll();
+            verworfen.incrementAndGet();
+            verworfenInFolge++;
+            queue.offer(aenderung);
+        }
+
+        /**
+         * Trennt einen Client, der nicht nachkommt; er verbindet sich mit {@code Last-Event-ID} neu.
+         */
+        private void trennen() {
+            schliessen();
+            sender.execute(emitter::complete);
+        }
+
+        private void heartbeat() {
+            heartbeatFaellig = true;
+            planen();
+        }
+
+        private void planen() {
+            if (!geschlossen && laeuft.compareAndSet(false, true)) {
+                sender.execute(this::senden);
+            }
+        }
+
+        private void senden() {
+            try {
+                AenderungDTO aenderung;
+                int gesendet = 0;
+                while (!geschlossen && gesendet++ < MAX_BATCH && (aenderung = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(aenderung.getId()))
+                            .data(aenderung, MediaType.APPLICATION_JSON));
+                }
+                if (queue.isEmpty()) {
+                    synchronized (AenderungsFeed.this) {
+                        verworfenInFolge = 0;
+                    }
+                }
+                if (heartbeatFaellig && !geschlossen) {
+                    heartbeatFaellig = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client nicht mehr erreichbar
+                schliessen();
+                return;
+            } finally {
+                laeuft.set(false);
+            }
+            // restliche Ereignisse und solche, die während des Sendens angekommen sind
+            if (!queue.isEmpty()) {
+                planen();
+            }
+        }
+
+        private void schliessen() {
+            geschlossen = true;
+            abonnenten.remove(this);
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.m295.m295_backend.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.m295.m295_backend.dto.CacheStatsDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service-Klasse zum Auslesen der Cache-Statistiken (Treffer, Fehlzugriffe, Verdrängungen).
+ */
+@Service
+public class CacheStatsService {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Konstruktor mit CacheManager-Injektion.
+     *
+     * @param cacheManager der CacheManager der Applikation
+     */
+    public CacheStatsService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Gibt die Statistiken aller Caffeine-Caches zurück.
+     *
+     * @return Liste mit einem Eintrag pro Cache
+     */
+    public List<CacheStatsDTO> getCacheStats() {
+        List<CacheStatsDTO> result = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            // getNativeCache, da der Cache transaktionsbewusst dekoriert ist
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                CacheStats stats = nativeCache.stats();
+                result.add(new CacheStatsDTO(
+                        name,
+                        nativeCache.estimatedSize(),
+                        stats.hitCount(),
+                        stats.missCount(),
+                        stats.hitRate(),
+                        stats.evictionCount()
+                ));
+            }
+        }
+        return result;
+    }
+}
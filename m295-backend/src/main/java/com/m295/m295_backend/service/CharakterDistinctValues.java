@@ -0,0 +1,147 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.repository.CharakterRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hält die unterschiedlichen Spezies und Herkunftsorte im Speicher.
+ * <p>
+ * Die Listen werden beim ersten Zugriff geladen und nur neu geladen, wenn ein
+ * Schreibzugriff einen Wert hinzufügen oder entfernen kann. Jede Liste hat einen
+ * ETag, der aus dem Inhalt berechnet wird.
+ * </p>
+ * <p>
+ * Verworfen wird erst nach dem Commit des Schreibzugriffs. Ein paralleles Laden vor dem Commit sieht noch
+ * die alten Zeilen; es wird entweder von der Generationsprüfung verworfen oder gleich danach ersetzt.
+ * </p>
+ */
+@Component
+public class CharakterDistinctValues {
+
+    /**
+     * Unveränderlicher Stand einer Werteliste mit zugehörigem ETag.
+     *
+     * @param values sortierte Liste der Werte
+     * @param etag   starker ETag (inkl. Anführungszeichen), aus dem Inhalt berechnet
+     */
+    public record Snapshot(List<String> values, String etag) {
+
+        boolean contains(String value) {
+            // Liste ist sortiert
+            return value != null && Collections.binarySearch(values, value) >= 0;
+        }
+    }
+
+    private final CharakterRepository repository;
+
+    /**
+     * Wird bei jeder Invalidierung erhöht, damit ein paralleles Laden keinen veralteten Stand speichert.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot species;
+    private volatile Snapshot origins;
+
+    /**
+     * Konstruktor mit Repository-Injektion.
+     *
+     * @param repository Repository für Charaktere
+     */
+    public CharakterDistinctValues(CharakterRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Gibt die unterschiedlichen Spezies zurück und lädt sie bei Bedarf.
+     *
+     * @return aktueller Stand der Spezies
+     */
+    public Snapshot getSpecies() {
+        Snapshot current = species;
+        if (current == null) {
+            long loadedGeneration = generation.get();
+            current = load(repository::findDistinctSpecies);
+            if (generation.get() == loadedGeneration) {
+                species = current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gibt die unterschiedlichen Herkunftsorte zurück und lädt sie bei Bedarf.
+     *
+     * @return aktueller Stand der Herkunftsorte
+     */
+    public Snapshot getOrigins() {
+        Snapshot current = origins;
+        if (current == null) {
+            long loadedGeneration = generation.get();
+            current = load(repository::findDistinctOrigin);
+            if (generation.get() == loadedGeneration) {
+                origins = current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Meldet einen neu erstellten Charakter. Die Listen werden nach dem Commit nur verworfen,
+     * wenn Spezies oder Herkunft noch nicht bekannt sind.
+     *
+     * @param newSpecies Spezies des neuen Charakters
+     * @param newOrigin  Herkunft des neuen Charakters
+     */
+    public void onCreated(String newSpecies, String newOrigin) {
+        afterCommit(() -> {
+            Snapshot currentSpecies = species;
+            Snapshot currentOrigins = origins;
+            if (currentSpecies != null && !currentSpecies.contains(newSpecies)
+                    || currentOrigins != null && !currentOrigins.contains(newOrigin)) {
+                clear();
+            }
+        });
+    }
+
+    /**
+     * Verwirft beide Listen nach dem Commit, z.B. nach Aktualisierungen oder Löschungen,
+     * bei denen ein Wert verschwinden kann.
+     */
+    public void invalidate() {
+        afterCommit(this::clear);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        species = null;
+        origins = null;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Snapshot load(Supplier<List<String>> query) {
+        List<String> values = query.get().stream().sorted().toList();
+        String hash = DigestUtils.md5DigestAsHex(String.join("\n", values).getBytes(StandardCharsets.UTF_8));
+        return new Snapshot(values, "\"" + hash + "\"");
+    }
+}
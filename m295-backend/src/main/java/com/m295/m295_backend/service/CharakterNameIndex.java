@@ -0,0 +1,436 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.repository.CharakterNameView;
+import com.m295.m295_backend.repository.CharakterRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-Memory-Suchindex für Teilstrings in Charakternamen.
+ * <p>
+ * Jeder Name wird in Trigramme (Folgen von drei Zeichen) zerlegt. Für eine Suche werden
+ * nur die Charaktere geprüft, die alle Trigramme des Suchbegriffs enthalten, statt die
+ * ganze Tabelle mit {@code LIKE '%...%'} zu durchsuchen. Er funktioniert unabhängig von
+ * der Datenbank (PostgreSQL und H2).
+ * </p>
+ * <p>
+ * Der Index besteht aus einem unveränderlichen Stand und einer kleinen Liste von Änderungen.
+ * Der Stand hält nur primitive Arrays: alle Namen in einem String, pro Trigramm ein sortiertes
+ * {@code int[]} mit den Positionen der Charaktere. Er wird beim ersten Zugriff ohne Sperre aufgebaut
+ * und danach ausgetauscht; sind mehr als {@value #MAX_CHANGES} Änderungen aufgelaufen, baut ihn die
+ * nächste Suche neu auf.
+ * </p>
+ * <p>
+ * Der {@link CharakterService} meldet Schreibzugriffe; sie werden erst nach dem Commit übernommen,
+ * damit zurückgerollte Namen nie gefunden werden.
+ * </p>
+ */
+@Component
+public class CharakterNameIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    /**
+     * Anzahl Änderungen seit dem letzten Aufbau, ab der der Stand neu aufgebaut wird.
+     */
+    static final int MAX_CHANGES = 10_000;
+
+    /**
+     * Trennt die Namen im gemeinsamen String, damit ein Treffer nie über zwei Namen reicht.
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    private final CharakterRepository repository;
+
+    /**
+     * Schützt {@link #snapshot}-Wechsel, {@link #changes}, {@link #sequence} und {@link #epoch}.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Es wird immer nur ein Stand gleichzeitig aufgebaut.
+     */
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * ID → neuer Name in Kleinbuchstaben ({@code null} = gelöscht), hat Vorrang vor dem Stand.
+     */
+    private final Map<Long, Change> changes = new HashMap<>();
+
+    private long sequence;
+
+    /**
+     * Wird bei {@link #invalidate()} erhöht, damit ein gerade laufender Aufbau verworfen wird.
+     */
+    private long epoch;
+
+    /**
+     * Konstruktor mit Repository-Injektion.
+     *
+     * @param repository Repository für Charaktere
+     */
+    public CharakterNameIndex(CharakterRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Sucht Charaktere, deren Name den Suchbegriff enthält (case-insensitive).
+     * Die Treffer sind sortiert: exakte Treffer, dann Namensanfang, dann Wortanfang,
+     * dann übrige; innerhalb davon nach Position des Treffers und Namenslänge.
+     *
+     * @param keyword Suchbegriff
+     * @param limit   maximale Anzahl Treffer
+     * @return IDs der Treffer in Rang-Reihenfolge
+     */
+    public List<Long> search(String keyword, int limit) {
+        String needle = normalize(keyword);
+        List<Match> matches = null;
+        int pendingChanges = 0;
+        while (matches == null) {
+            ensureLoaded();
+            lock.readLock().lock();
+            try {
+                Snapshot base = snapshot;
+                if (base != null) {
+                    matches = collect(base, needle);
+                    pendingChanges = changes.size();
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        if (pendingChanges > MAX_CHANGES && buildLock.tryLock()) {
+            try {
+                rebuild();
+            } finally {
+                buildLock.unlock();
+            }
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Match::rank)
+                        .thenComparingInt(Match::position)
+                        .thenComparingInt(Match::length)
+                        .thenComparingLong(Match::id))
+                .limit(limit)
+                .map(Match::id)
+                .toList();
+    }
+
+    /**
+     * Fügt einen Charakter hinzu oder aktualisiert seinen Namen, nach dem Commit der laufenden Transaktion.
+     *
+     * @param id   ID des Charakters
+     * @param name Name des Charakters
+     */
+    public void put(Long id, String name) {
+        if (name == null) {
+            return;
+        }
+        afterCommit(() -> apply(id, normalize(name)));
+    }
+
+    /**
+     * Entfernt einen Charakter aus dem Index, nach dem Commit der laufenden Transaktion.
+     *
+     * @param id ID des Charakters
+     */
+    public void remove(Long id) {
+        afterCommit(() -> apply(id, null));
+    }
+
+    /**
+     * Verwirft den Index nach dem Commit, z.B. nach Massenänderungen. Er wird beim nächsten Zugriff neu aufgebaut.
+     */
+    public void invalidate() {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                snapshot = null;
+                changes.clear();
+                epoch++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(Long id, String name) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // ohne Stand und ohne laufenden Aufbau liest der nächste Aufbau die Änderung aus der Datenbank
+            if (snapshot != null || buildLock.isLocked()) {
+                changes.put(id, new Change(name, ++sequence));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (snapshot != null) {
+            return;
+        }
+        buildLock.lock();
+        try {
+            if (snapshot == null) {
+                rebuild();
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Baut einen neuen Stand aus der Datenbank und tauscht ihn aus. Änderungen, die vor dem Start
+     * committet wurden, sind darin enthalten und werden verworfen; spätere bleiben bestehen.
+     * Muss mit {@link #buildLock} aufgerufen werden.
+     */
+    private void rebuild() {
+        long startSequence;
+        long startEpoch;
+        lock.readLock().lock();
+        try {
+            startSequence = sequence;
+            startEpoch = epoch;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Snapshot built = load();
+
+        lock.writeLock().lock();
+        try {
+            if (epoch == startEpoch) {
+                snapshot = built;
+                changes.values().removeIf(change -> change.sequence() <= startSequence);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Snapshot load() {
+        long[] ids = new long[LOAD_PAGE_SIZE];
+        IntList offsets = new IntList();
+        StringBuilder text = new StringBuilder();
+        Map<String, IntList> postings = new HashMap<>();
+        int count = 0;
+
+        long cursor = 0L;
+        List<CharakterNameView> page;
+        do {
+            page = repository.findNamesAfter(cursor, Limit.of(LOAD_PAGE_SIZE));
+            for (CharakterNameView view : page) {
+                cursor = view.getId();
+                if (view.getName() == null) {
+                    continue;
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                String name = normalize(view.getName());
+                ids[count] = view.getId();
+                offsets.add(text.length());
+                text.append(name).append(SEPARATOR);
+                for (String gram : grams(name)) {
+                    postings.computeIfAbsent(gram, key -> new IntList()).add(count);
+                }
+                count++;
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        offsets.add(text.length());
+
+        Map<String, int[]> compact = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((gram, ordinals) -> compact.put(gram, ordinals.toArray()));
+        return new Snapshot(Arrays.copyOf(ids, count), text.toString(), offsets.toArray(), compact);
+    }
+
+    /**
+     * Sammelt die Treffer aus Stand und Änderungen. Muss mit Lesesperre aufgerufen werden.
+     */
+    private List<Match> collect(Snapshot base, String needle) {
+        List<Match> matches = new ArrayList<>();
+        if (needle.length() < GRAM_SIZE) {
+            // kurze Begriffe ohne vollständiges Trigramm: ein Durchlauf über alle Namen
+            int from = 0;
+            int position;
+            while (from < base.text.length() && (position = base.text.indexOf(needle, from)) >= 0) {
+                int ordinal = base.ordinalAt(position);
+                addMatch(matches, base, ordinal, needle);
+                from = base.offsets[ordinal + 1];
+            }
+        } else {
+            for (int ordinal : base.candidates(grams(needle))) {
+                addMatch(matches, base, ordinal, needle);
+            }
+        }
+        changes.forEach((id, change) -> {
+            if (change.name() != null) {
+                addMatch(matches, id, change.name(), needle);
+            }
+        });
+        return matches;
+    }
+
+    private void addMatch(List<Match> matches, Snapshot base, int ordinal, String needle) {
+        long id = base.ids[ordinal];
+        if (!changes.containsKey(id)) {
+            addMatch(matches, id, base.name(ordinal), needle);
+        }
+    }
+
+    private static void addMatch(List<Match> matches, long id, String name, String needle) {
+        int position = name.indexOf(needle);
+        if (position >= 0) {
+            matches.add(new Match(id, rank(name, needle, position), position, name.length()));
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static int rank(String name, String needle, int position) {
+        if (name.equals(needle)) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        if (Character.isWhitespace(name.charAt(position - 1))) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * Unveränderlicher Stand des Index. Charaktere werden über ihre Position (Ordinal) angesprochen.
+     *
+     * @param ids      Ordinal → ID, aufsteigend
+     * @param text     alle Namen in Kleinbuchstaben, jeweils gefolgt von {@link #SEPARATOR}
+     * @param offsets  Ordinal → Beginn des Namens in {@code text}; der letzte Eintrag ist die Länge von {@code text}
+     * @param postings Trigramm → aufsteigende Ordinals der Namen, die es enthalten
+     */
+    private record Snapshot(long[] ids, String text, int[] offsets, Map<String, int[]> postings) {
+
+        String name(int ordinal) {
+            return text.substring(offsets[ordinal], offsets[ordinal + 1] - 1);
+        }
+
+        int ordinalAt(int position) {
+            int index = Arrays.binarySearch(offsets, position);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        /**
+         * Schnittmenge der Listen aller Trigramme, beginnend mit der kürzesten.
+         */
+        int[] candidates(Set<String> grams) {
+            List<int[]> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                int[] ordinals = postings.get(gram);
+                if (ordinals == null) {
+                    return new int[0];
+                }
+                lists.add(ordinals);
+            }
+            lists.sort(Comparator.comparingInt(ordinals -> ordinals.length));
+            int[] result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            return result;
+        }
+
+        private static int[] intersect(int[] small, int[] large) {
+            int[] result = new int[small.length];
+            int size = 0;
+            int from = 0;
+            for (int ordinal : small) {
+                int index = Arrays.binarySearch(large, from, large.length, ordinal);
+                if (index >= 0) {
+                    result[size++] = ordinal;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+
+    /**
+     * Änderung seit dem letzten Aufbau.
+     *
+     * @param name     neuer Name in Kleinbuchstaben oder {@code null}, wenn der Charakter gelöscht wurde
+     * @param sequence laufende Nummer, um beim Austausch des Stands ältere Änderungen zu verwerfen
+     */
+    private record Change(String name, long sequence) {
+    }
+
+    /**
+     * Wachsende {@code int}-Liste ohne Boxing, nur für den Aufbau.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private record Match(long id, int rank, int position, int length) {
+    }
+}
@@ -1,30 +1,101 @@
 package com.m295.m295_backend.service;
 
+import com.m295.m295_backend.config.CacheConfig;
+import com.m295.m295_backend.dto.AenderungDTO;
+import com.m295.m295_backend.dto.CharakterBulkUpdateDTO;
 import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.dto.CharakterFacetsDTO;
 import com.m295.m295_backend.dto.CharakterFormDTO;
+import com.m295.m295_backend.dto.CursorPageDTO;
 import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.entity.CharakterWoerterbuch;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
 import com.m295.m295_backend.exception.CharakterNotFoundException;
+import com.m295.m295_backend.exception.CharakterVersionConflictException;
 import com.m295.m295_backend.exception.InvalidCharakterDataException;
 import com.m295.m295_backend.exception.InvalidCharakterSpeciesException;
 import com.m295.m295_backend.exception.InvalidCharakterStatusException;
 import com.m295.m295_backend.mapper.CharakterMapper;
 import com.m295.m295_backend.repository.CharakterRepository;
+import com.m295.m295_backend.repository.CharakterSpecifications;
+import com.m295.m295_backend.repository.FacetCount;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service-Klasse für Charakter-Operationen.
  * Kümmert sich um Business-Logik, Validierung und DTO-Mapping.
  */
 @Service
+@Timed(value = "charakter.service", description = "Laufzeit der CharakterService-Methoden")
 public class CharakterService {
-    private final CharakterRepository repository;
+    /**
+     * Standard-Seitengrösse für die Cursor-Paginierung.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Maximal erlaubte Seitengrösse für die Cursor-Paginierung.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
 
+    /**
+     * Maximale Anzahl zufälliger Charaktere pro Anfrage.
+     */
+    public static final int MAX_RANDOM_COUNT = 50;
+
+    /**
+     * Anzahl Charaktere, nach denen beim Batch-Import der Persistence-Context geleert wird.
+     */
+    private static final int BATCH_FLUSH_SIZE = 1000;
 
-    public CharakterService(CharakterRepository repository) {
+    /**
+     * Maximale Länge eines Namens, wie die Spalte "name".
+     */
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final CharakterRepository repository;
+    private final EntityManager entityManager;
+    private final CharakterDistinctValues distinctValues;
+    private final CharakterNameIndex nameIndex;
+    private final CharakterWoerterbuch werte;
+    private final DatenVersionService datenVersion;
+    private final ApplicationEventPublisher events;
+
+
+    public CharakterService(CharakterRepository repository, EntityManager entityManager,
+                            CharakterDistinctValues distinctValues, CharakterNameIndex nameIndex,
+                            CharakterWoerterbuch werte, DatenVersionService datenVersion,
+                            ApplicationEventPublisher events) {
         this.repository = repository;
+        this.entityManager = entityManager;
+        this.distinctValues = distinctValues;
+        this.nameIndex = nameIndex;
+        this.werte = werte;
+        this.datenVersion = datenVersion;
+        this.events = events;
     }
 
     /**
@@ -32,9 +103,23 @@ public class CharakterService {
      *
      * @return Liste aller Charaktere als CharakterFormDTO
      */
+    @Transactional(readOnly = true)
     public List<CharakterFormDTO> getAllCharactersAsFormDTO() {
-        List<Charakter> entities = repository.findAll();
-        return CharakterMapper.toFormDTOList(entities);
+        return repository.findAllAsFormDTO();
+    }
+
+    /**
+     * Gibt eine Seite von Charakteren als CharakterFormDTO zurück (Keyset-Paginierung).
+     *
+     * @param after ID des letzten Elements der vorherigen Seite oder null für die erste Seite
+     * @param limit maximale Anzahl Elemente pro Seite (1 bis {@value #MAX_PAGE_SIZE})
+     * @return Seite mit CharakterFormDTOs und Cursor für die nächste Seite
+     * @throws InvalidCharakterDataException wenn das Limit ausserhalb des erlaubten Bereichs liegt
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CharakterFormDTO> getCharactersPageAsFormDTO(Long after, int limit) {
+        List<CharakterFormDTO> items = repository.findFormDtoPageAfter(cursorOf(after, limit), Limit.of(limit + 1));
+        return toPage(items, limit, CharakterFormDTO::getId);
     }
 
     /**
@@ -61,27 +146,36 @@ public class CharakterService {
      * @return das gespeicherte CharakterFormDTO mit der vergebenen ID
      * @throws IllegalArgumentException wenn formDTO null ist
      */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
     public CharakterFormDTO createCharacterFromForm(Charakter charakter) {
+        charakter.setId(null); //immer neu erstellen, nie bestehende Zeile überschreiben
         Charakter saved = repository.save(charakter);
+        distinctValues.onCreated(saved.getSpecies(), saved.getOrigin());
+        nameIndex.put(saved.getId(), saved.getName());
+        datenVersion.bump(Bereich.CHARAKTERE);
+        events.publishEvent(AenderungEvent.charakter(AenderungDTO.Typ.CREATED, saved.getId(), CharakterMapper.toDTO(saved)));
         return CharakterMapper.toFormDTO(saved);
     }
 
     /**
      * Aktualisiert einen existierenden Charakter mit den neuen Daten.
+     * Das Update läuft als einzelnes {@code UPDATE ... WHERE id = ?}, ohne den Charakter vorher zu laden.
+     *
+     * Danach enthält {@code charakter} die ID und die neue Version.
      *
-     * @param id        die ID des zu aktualisierenden Charakters
-     * @param charakter das DTO mit den neuen Charakterdaten
+     * @param id              die ID des zu aktualisierenden Charakters
+     * @param charakter       die neuen Charakterdaten
+     * @param expectedVersion erwartete Version (If-Match) oder null für ein Update ohne Versionsprüfung
      * @return das aktualisierte CharakterFormDTO
-     * @throws IllegalArgumentException wenn id oder formDTO null ist
-     * @throws RuntimeException         wenn kein Charakter mit der ID gefunden wird
+     * @throws CharakterNotFoundException         wenn kein Charakter mit der ID gefunden wird
+     * @throws CharakterVersionConflictException wenn der Charakter nicht mehr die erwartete Version hat
      */
-    public CharakterFormDTO updateCharakterFromForm(Long id, Charakter charakter) {
-        if (!repository.existsById(id)) {
-            throw new CharakterNotFoundException(id);
-        }
-        charakter.setId(id);
-        Charakter updated = repository.save(charakter);
-        return CharakterMapper.toFormDTO(updated);
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
+    public CharakterFormDTO updateCharakterFromForm(Long id, Charakter charakter, Long expectedVersion) {
+        applyUpdate(id, charakter, expectedVersion);
+        return CharakterMapper.toFormDTO(charakter);
     }
 
     /**
@@ -89,9 +183,37 @@ public class CharakterService {
      *
      * @return Liste aller Charaktere als CharakterDTO
      */
+    @Transactional(readOnly = true)
     public List<CharakterDTO> getAllCharaktersAsDTO() {
-        List<Charakter> entities = repository.findAll();
-        return CharakterMapper.toDTOList(entities);
+        return repository.findAllAsDTO();
+    }
+
+    /**
+     * Gibt eine Seite von Charakteren als DTOs zurück (Keyset-Paginierung).
+     *
+     * @param after ID des letzten Elements der vorherigen Seite oder null für die erste Seite
+     * @param limit maximale Anzahl Elemente pro Seite (1 bis {@value #MAX_PAGE_SIZE})
+     * @return Seite mit CharakterDTOs und Cursor für die nächste Seite
+     * @throws InvalidCharakterDataException wenn das Limit ausserhalb des erlaubten Bereichs liegt
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CharakterDTO> getCharaktersPageAsDTO(Long after, int limit) {
+        List<CharakterDTO> items = repository.findDtoPageAfter(cursorOf(after, limit), Limit.of(limit + 1));
+        return toPage(items, limit, CharakterDTO::getId);
+    }
+
+    /**
+     * Exportiert alle Charaktere nach ID sortiert, ohne die ganze Liste im Speicher aufzubauen.
+     * Die Zeilen werden direkt als DTOs gelesen; es entstehen keine Entities im
+     * Persistence-Context, der Speicherverbrauch bleibt konstant.
+     *
+     * @param consumer empfängt jeden Charakter als DTO
+     */
+    @Transactional(readOnly = true)
+    public void exportCharaktere(Consumer<CharakterDTO> consumer) {
+        try (Stream<CharakterDTO> stream = repository.streamAllAsDTO()) {
+            stream.forEach(consumer);
+        }
     }
 
     /**
@@ -138,8 +260,12 @@ public class CharakterService {
      * @param species die Spezies
      * @return Anzahl Charaktere mit der angegebenen Spezies
      */
+    @Transactional(readOnly = true)
     public long countBySpecies(String species) {
-        return repository.countBySpeciesIgnoreCase(species);
+        if (!isKnown(species)) {
+            return 0;
+        }
+        return repository.countBySpecies(species);
     }
 
     /**
@@ -148,8 +274,12 @@ public class CharakterService {
      * @param status der Status
      * @return Anzahl Charaktere mit dem angegebenen Status
      */
+    @Transactional(readOnly = true)
     public long countByStatus(String status) {
-        return repository.countByStatusIgnoreCase(status);
+        if (!isKnown(status)) {
+            return 0;
+        }
+        return repository.countByStatus(status);
     }
 
     /**
@@ -158,24 +288,75 @@ public class CharakterService {
      * @param gender das Geschlecht
      * @return Anzahl Charaktere mit dem angegebenen Geschlecht
      */
+    @Transactional(readOnly = true)
     public long countByGender(String gender) {
-        return repository.countByGenderIgnoreCase(gender);
+        if (!isKnown(gender)) {
+            return 0;
+        }
+        return repository.countByGender(gender);
+    }
+
+    /**
+     * Zählt Charaktere pro Spezies, Status, Geschlecht und Herkunft.
+     * Jede Gruppe wird mit einer GROUP BY-Abfrage berechnet, statt pro Wert einzeln zu zählen.
+     *
+     * @return DTO mit den Anzahlen pro Attributwert
+     */
+    @Transactional(readOnly = true)
+    public CharakterFacetsDTO getFacets() {
+        return new CharakterFacetsDTO(
+                toFacetMap(repository.countGroupedBySpecies()),
+                toFacetMap(repository.countGroupedByStatus()),
+                toFacetMap(repository.countGroupedByGender()),
+                toFacetMap(repository.countGroupedByOrigin())
+        );
+    }
+
+    private Map<String, Long> toFacetMap(List<FacetCount> counts) {
+        Map<String, Long> map = new TreeMap<>();
+        for (FacetCount count : counts) {
+            map.put(count.getWert(), count.getAnzahl());
+        }
+        return map;
     }
 
     /**
      * Sucht Charaktere nach einem Keyword im Namen (case-insensitive).
+     * Die Suche läuft über den Trigramm-Index {@link CharakterNameIndex}; nur die besten
+     * Treffer werden aus der Datenbank geladen.
+     * Ergebnisse werden pro Keyword gecached und bei Schreibzugriffen verworfen.
      *
      * @param keyword Suchbegriff
-     * @return Liste der gefundenen Charaktere als DTOs
+     * @param limit   maximale Anzahl Treffer (1 bis {@value #MAX_PAGE_SIZE})
+     * @return Liste der gefundenen Charaktere als DTOs, nach Relevanz sortiert
+     * @throws InvalidCharakterDataException wenn das Limit ausserhalb des erlaubten Bereichs liegt
      */
-    public List<CharakterDTO> searchByNameKeyword(String keyword) {
-        List<Charakter> list = repository.findByNameContainingIgnoreCase(keyword);
-        return CharakterMapper.toDTOList(list);
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SEARCH_CACHE, keyGenerator = "normalizedKeyGenerator")
+    public List<CharakterDTO> searchByNameKeyword(String keyword, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidCharakterDataException(
+                    "Limit muss zwischen 1 und " + MAX_PAGE_SIZE + " liegen");
+        }
+        List<Long> ids = nameIndex.search(keyword, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CharakterDTO> byId = new HashMap<>();
+        for (CharakterDTO dto : repository.findDtosByIdIn(ids)) {
+            byId.put(dto.getId(), dto);
+        }
+        // Reihenfolge des Index (Relevanz) beibehalten
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
      * Filtert Charaktere anhand optionaler Filterparameter.
      * Null bedeutet, dass dieser Filter nicht angewendet wird.
+     * Ergebnisse werden pro Parameterkombination gecached und bei Schreibzugriffen verworfen.
      *
      * @param species Spezies-Filter (optional)
      * @param status  Status-Filter (optional)
@@ -183,33 +364,120 @@ public class CharakterService {
      * @param origin  Herkunfts-Filter (optional)
      * @return Liste der gefilterten Charaktere als DTOs
      */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.FILTER_CACHE, keyGenerator = "normalizedKeyGenerator")
     public List<CharakterDTO> filterCharacters(String species, String status, String gender, String origin) {
-        List<Charakter> results = repository.findAll().stream()
-                .filter(c -> species == null || c.getSpecies().equalsIgnoreCase(species))
-                .filter(c -> status == null || c.getStatus().equalsIgnoreCase(status))
-                .filter(c -> gender == null || c.getGender().equalsIgnoreCase(gender))
-                .filter(c -> origin == null || c.getOrigin().equalsIgnoreCase(origin))
-                .toList();
+        if (!isKnown(species, status, gender, origin)) {
+            return List.of();
+        }
+        // Filter wird als WHERE-Klausel in der Datenbank ausgewertet, Ergebnis direkt als DTOs
+        return repository.findDtos(CharakterSpecifications.filter(species, status, gender, origin));
+    }
 
+    /**
+     * Wählt zufällige Charaktere aus, optional eingeschränkt durch Filter.
+     * <p>
+     * Statt die ganze Tabelle zu laden, wird eine zufällige ID zwischen kleinster und
+     * grösster ID gewählt und der erste passende Charakter ab dieser ID über den
+     * Primärschlüssel-Index gelesen. Bei Lücken in den IDs ist die Verteilung nicht
+     * exakt gleichmässig, dafür kostet jede Ziehung nur einen Index-Zugriff.
+     * </p>
+     * <p>
+     * Fehlen nach den Ziehungen noch Charaktere (doppelte Treffer, kleine Treffermengen), wird ab einer
+     * weiteren zufälligen ID fortlaufend aufgefüllt, bei Bedarf wieder vom Anfang der Tabelle.
+     * Weniger als {@code count} kommen nur zurück, wenn weniger Charaktere passen.
+     * </p>
+     *
+     * @param count   Anzahl gewünschter Charaktere (1 bis {@value #MAX_RANDOM_COUNT})
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @return Liste mit {@code count} verschiedenen Charakteren (oder allen passenden, wenn es weniger sind)
+     * @throws InvalidCharakterDataException wenn count ausserhalb des erlaubten Bereichs liegt
+     */
+    @Transactional(readOnly = true)
+    public List<CharakterDTO> getRandomCharakters(int count, String species, String status, String gender, String origin) {
+        if (count < 1 || count > MAX_RANDOM_COUNT) {
+            throw new InvalidCharakterDataException(
+                    "Count muss zwischen 1 und " + MAX_RANDOM_COUNT + " liegen");
+        }
+        Long minId = repository.findMinId();
+        Long maxId = repository.findMaxId();
+        List<Charakter> results = new ArrayList<>();
+        if (minId == null || maxId == null || !isKnown(species, status, gender, origin)) {
+            return CharakterMapper.toDTOList(results);
+        }
+
+        Specification<Charakter> filter = CharakterSpecifications.filter(species, status, gender, origin);
+        Set<Long> seen = new HashSet<>();
+        // Begrenzte Anzahl Versuche, damit kleine Treffermengen nicht endlos gezogen werden
+        for (int attempt = 0; attempt < count * 3 && results.size() < count; attempt++) {
+            long pivot = ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+            Optional<Charakter> picked = findFirstFrom(filter.and(CharakterSpecifications.idAtLeast(pivot)));
+            if (picked.isEmpty()) {
+                // Keine Treffer ab dem Pivot: vom Anfang der Tabelle weitersuchen
+                picked = findFirstFrom(filter);
+                if (picked.isEmpty()) {
+                    break;
+                }
+            }
+            if (seen.add(picked.get().getId())) {
+                results.add(picked.get());
+            }
+        }
+        if (results.size() < count && !seen.isEmpty()) {
+            // Keyset-Scan ab einem zufälligen Pivot, danach vom Anfang der Tabelle
+            long pivot = ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+            fillFrom(filter.and(CharakterSpecifications.idAtLeast(pivot)), count, seen, results);
+            if (results.size() < count) {
+                fillFrom(filter, count, seen, results);
+            }
+        }
         return CharakterMapper.toDTOList(results);
     }
 
+    private Optional<Charakter> findFirstFrom(Specification<Charakter> spec) {
+        return repository.findBy(spec, query -> query.sortBy(Sort.by("id")).first());
+    }
+
+    /**
+     * Ergänzt die Ergebnisse mit den nächsten Charakteren nach ID. Bereits gezogene können im Bereich
+     * liegen, daher werden so viele zusätzlich gelesen.
+     */
+    private void fillFrom(Specification<Charakter> spec, int count, Set<Long> seen, List<Charakter> results) {
+        int limit = count - results.size() + seen.size();
+        List<Charakter> next = repository.findBy(spec, query -> query.sortBy(Sort.by("id")).limit(limit).all());
+        for (Charakter charakter : next) {
+            if (results.size() == count) {
+                break;
+            }
+            if (seen.add(charakter.getId())) {
+                results.add(charakter);
+            }
+        }
+    }
+
     /**
-     * Gibt eine Liste aller verschiedenen Spezies zurück.
+     * Gibt eine sortierte Liste aller verschiedenen Spezies zurück.
+     * Die Liste wird im Speicher gehalten und nur nach relevanten Schreibzugriffen neu geladen.
      *
-     * @return Liste mit eindeutigen Spezies
+     * @return Spezies mit ETag
      */
-    public List<String> getDistinctSpecies() {
-        return repository.findDistinctSpecies();
+    @Transactional(readOnly = true)
+    public CharakterDistinctValues.Snapshot getDistinctSpecies() {
+        return distinctValues.getSpecies();
     }
 
     /**
-     * Gibt eine Liste aller verschiedenen Herkunftsorte zurück.
+     * Gibt eine sortierte Liste aller verschiedenen Herkunftsorte zurück.
+     * Die Liste wird im Speicher gehalten und nur nach relevanten Schreibzugriffen neu geladen.
      *
-     * @return Liste mit eindeutigen Herkunftsorten
+     * @return Herkunftsorte mit ETag
      */
-    public List<String> getDistinctOrigins() {
-        return repository.findDistinctOrigin();
+    @Transactional(readOnly = true)
+    public CharakterDistinctValues.Snapshot getDistinctOrigins() {
+        return distinctValues.getOrigins();
     }
 
     /**
@@ -220,6 +488,8 @@ public class CharakterService {
      * @return DTO des neu erstellten Charakters
      * @throws InvalidCharakterDataException bei ungültigen Daten
      */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
     public CharakterDTO createCharakter(CharakterDTO charakterDTO) {
         //Validierung
         if (charakterDTO == null) {
@@ -231,47 +501,306 @@ public class CharakterService {
         validateOrigin(charakterDTO.getOrigin());
         //DTO zu Entity konventieren ( ohne ID = id = 0)
         Charakter entity = CharakterMapper.toEntity(charakterDTO);
+        entity.setId(null); //immer neu erstellen, nie bestehende Zeile überschreiben
         //repository.save aufrufen(erkennt automatisch create)
         Charakter newCharakter = repository.save(entity);
+        distinctValues.onCreated(newCharakter.getSpecies(), newCharakter.getOrigin());
+        nameIndex.put(newCharakter.getId(), newCharakter.getName());
+        datenVersion.bump(Bereich.CHARAKTERE);
         //Entity zu DTO konventieren
         CharakterDTO newDTO = CharakterMapper.toDTO(newCharakter);
+        events.publishEvent(AenderungEvent.charakter(AenderungDTO.Typ.CREATED, newDTO.getId(), newDTO));
         //Dto zurückgeben
         return newDTO;
     }
 
     /**
-     * Aktualisiert einen existierenden Charakter basierend auf ID und DTO.
+     * Erstellt mehrere Charaktere in einer Transaktion.
+     * Zuerst werden alle DTOs validiert, erst danach wird eingefügt. Die Inserts werden von
+     * Hibernate als JDBC-Batches gesendet; der Persistence-Context wird regelmässig geleert,
+     * damit der Speicherverbrauch auch bei grossen Importen konstant bleibt.
      *
-     * @param id           die ID des zu aktualisierenden Charakters
-     * @param charakterDTO DTO mit den neuen Charakterdaten
+     * @param charakterDTOs Liste mit Charakterdaten
+     * @return DTOs der neu erstellten Charaktere in derselben Reihenfolge
+     * @throws InvalidCharakterDataException bei leerer Liste oder ungültigen Daten
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
+    public List<CharakterDTO> createCharaktere(List<CharakterDTO> charakterDTOs) {
+        if (charakterDTOs == null || charakterDTOs.isEmpty()) {
+            throw new InvalidCharakterDataException("Liste der Charaktere darf nicht leer sein");
+        }
+        //Alle Einträge validieren, bevor etwas gespeichert wird
+        for (int i = 0; i < charakterDTOs.size(); i++) {
+            CharakterDTO dto = charakterDTOs.get(i);
+            if (dto == null) {
+                throw new InvalidCharakterDataException("Charakter an Position " + i + " darf nicht null sein");
+            }
+            validateBatchName(dto.getName(), i);
+            validateStatus(dto.getStatus());
+            validateGender(dto.getGender());
+            validateSpecies(dto.getSpecies());
+            validateOrigin(dto.getOrigin());
+        }
+
+        List<CharakterDTO> created = new ArrayList<>(charakterDTOs.size());
+        for (int i = 0; i < charakterDTOs.size(); i++) {
+            Charakter entity = CharakterMapper.toEntity(charakterDTOs.get(i));
+            entity.setId(null);
+            entityManager.persist(entity); //ID kommt aus dem Sequenz-Pool, noch kein INSERT
+            created.add(CharakterMapper.toDTO(entity));
+            if ((i + 1) % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush(); //Inserts als JDBC-Batch senden
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        distinctValues.invalidate();
+        for (CharakterDTO dto : created) {
+            nameIndex.put(dto.getId(), dto.getName());
+        }
+        datenVersion.bump(Bereich.CHARAKTERE);
+        events.publishEvent(AenderungEvent.charakterReset());
+        return created;
+    }
+
+    /**
+     * Aktualisiert einen existierenden Charakter basierend auf ID und neuen Werten.
+     * Das Update läuft als einzelnes {@code UPDATE ... WHERE id = ?}, ohne den Charakter vorher zu laden.
+     * Danach enthält {@code values} die ID und die neue Version.
+     *
+     * @param id              die ID des zu aktualisierenden Charakters
+     * @param values          neue Charakterdaten (z.B. aus {@link CharakterMapper#toEntity})
+     * @param expectedVersion erwartete Version (If-Match) oder null für ein Update ohne Versionsprüfung
      * @return DTO des aktualisierten Charakters
-     * @throws CharakterNotFoundException wenn der Charakter nicht existiert
+     * @throws CharakterNotFoundException         wenn der Charakter nicht existiert
+     * @throws CharakterVersionConflictException wenn der Charakter nicht mehr die erwartete Version hat
      */
-    public CharakterDTO updateCharakter(Long id, CharakterDTO charakterDTO) {
-        //Prüfen ob Charakter existert
-        if (!repository.existsById(id)) {
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
+    public CharakterDTO updateCharakter(Long id, Charakter values, Long expectedVersion) {
+        if (values == null) {
+            throw new InvalidCharakterDataException("Charakter darf nicht null sein");
+        }
+        //Entity wird nur als Werte-Container für das UPDATE genutzt
+        applyUpdate(id, values, expectedVersion);
+        //aktualiserte Werte als dto zurückgeben
+        return CharakterMapper.toDTO(values);
+    }
+
+    /**
+     * Führt das UPDATE aus und setzt ID und neue Version auf der übergebenen Entity.
+     * Nur wenn keine Zeile geändert wurde, wird geprüft, ob die ID fehlt oder die Version nicht passt.
+     * Ohne erwartete Version wird die neue Version in derselben Transaktion über den Primärschlüssel gelesen.
+     */
+    private void applyUpdate(Long id, Charakter values, Long expectedVersion) {
+        int updated = repository.updateById(id, expectedVersion, values.getName(), values.getStatus(),
+                values.getSpecies(), values.getGender(), values.getOrigin());
+        if (updated == 0) {
+            if (expectedVersion != null && repository.existsById(id)) {
+                throw new CharakterVersionConflictException(id, expectedVersion);
+            }
             throw new CharakterNotFoundException(id);
         }
-        //DTO zu EIntity konventieren und ID setzen
-        Charakter entity = CharakterMapper.toEntity(charakterDTO);
-        entity.setId(id); //setzt die ID für update erkennung
-        //Repository.save aufrufen erkennt create automatisch
-        Charakter updatedEntity = repository.save(entity);
-        //aktualiserte Eintity als dto zurückgeben
-        return CharakterMapper.toDTO(updatedEntity);
+        values.setId(id);
+        values.setVersion(expectedVersion != null ? expectedVersion + 1 : repository.findVersionById(id));
+        distinctValues.invalidate();
+        nameIndex.put(id, values.getName());
+        datenVersion.bump(Bereich.CHARAKTERE);
+        events.publishEvent(AenderungEvent.charakter(AenderungDTO.Typ.UPDATED, id, CharakterMapper.toDTO(values)));
     }
 
     /**
      * Löscht einen Charakter anhand seiner ID.
+     * Läuft als einzelnes {@code DELETE ... WHERE id = ?}, ohne den Charakter vorher zu laden.
      *
      * @param id ID des Charakters, der gelöscht werden soll
+     * @throws CharakterNotFoundException wenn kein Charakter mit der ID existiert
      */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
     public void deleteCharakter(Long id) {
-        repository.deleteById(id);   // wirft Exception falls ID nicht existiert
+        if (repository.removeById(id) == 0) {
+            throw new CharakterNotFoundException(id);
+        }
+        distinctValues.invalidate();
+        nameIndex.remove(id);
+        datenVersion.bump(Bereich.CHARAKTERE);
+        events.publishEvent(AenderungEvent.charakter(AenderungDTO.Typ.DELETED, id, null));
+    }
+
+    /**
+     * Löscht alle Charaktere mit den angegebenen IDs.
+     * Die IDs werden in Blöcken von {@value #BATCH_FLUSH_SIZE} gelöscht, damit die IN-Liste
+     * nicht über die Parametergrenze des JDBC-Treibers wächst. Unbekannte IDs werden ignoriert.
+     *
+     * @param ids IDs der zu löschenden Charaktere
+     * @return Anzahl gelöschter Charaktere
+     * @throws InvalidCharakterDataException wenn keine IDs angegeben sind
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
+    public int deleteCharaktere(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidCharakterDataException("Mindestens eine ID muss angegeben werden");
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += BATCH_FLUSH_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + BATCH_FLUSH_SIZE, distinctIds.size()));
+            deleted += repository.removeByIdIn(chunk);
+        }
+        distinctValues.invalidate();
+        distinctIds.forEach(nameIndex::remove);
+        if (deleted > 0) {
+            datenVersion.bump(Bereich.CHARAKTERE);
+            events.publishEvent(AenderungEvent.charakterReset());
+        }
+        return deleted;
+    }
+
+    /**
+     * Ändert alle Charaktere, die dem Filter entsprechen, mit einem einzigen UPDATE.
+     * Mindestens ein Filter und ein neuer Wert müssen gesetzt sein.
+     *
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @param changes neue Werte, null-Felder bleiben unverändert
+     * @return Anzahl geänderter Charaktere
+     * @throws InvalidCharakterDataException wenn kein Filter oder kein neuer Wert gesetzt ist
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
+    public int bulkUpdate(String species, String status, String gender, String origin,
+                          CharakterBulkUpdateDTO changes) {
+        requireFilter(species, status, gender, origin);
+        if (changes == null || changes.getStatus() == null && changes.getSpecies() == null
+                && changes.getGender() == null && changes.getOrigin() == null) {
+            throw new InvalidCharakterDataException("Mindestens ein neuer Wert muss angegeben werden");
+        }
+        if (changes.getStatus() != null) {
+            validateStatus(changes.getStatus());
+        }
+        if (changes.getSpecies() != null) {
+            validateSpecies(changes.getSpecies());
+        }
+        if (changes.getGender() != null) {
+            validateGender(changes.getGender());
+        }
+        if (changes.getOrigin() != null) {
+            validateOrigin(changes.getOrigin());
+        }
+
+        if (!isKnown(species, status, gender, origin)) {
+            return 0;
+        }
+        int updated = repository.updateByFilter(species, status, gender, origin,
+                changes.getStatus(), changes.getSpecies(), changes.getGender(), changes.getOrigin());
+        distinctValues.invalidate();
+        if (updated > 0) {
+            datenVersion.bump(Bereich.CHARAKTERE);
+            events.publishEvent(AenderungEvent.charakterReset());
+        }
+        return updated;
+    }
+
+    /**
+     * Löscht alle Charaktere, die dem Filter entsprechen, mit einem einzigen DELETE.
+     * Mindestens ein Filter muss gesetzt sein, damit nicht versehentlich alles gelöscht wird.
+     *
+     * @param species Spezies-Filter (optional)
+     * @param status  Status-Filter (optional)
+     * @param gender  Geschlecht-Filter (optional)
+     * @param origin  Herkunfts-Filter (optional)
+     * @return Anzahl gelöschter Charaktere
+     * @throws InvalidCharakterDataException wenn kein Filter gesetzt ist
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.FILTER_CACHE, CacheConfig.SEARCH_CACHE}, allEntries = true)
+    public int bulkDelete(String species, String status, String gender, String origin) {
+        requireFilter(species, status, gender, origin);
+        if (!isKnown(species, status, gender, origin)) {
+            return 0;
+        }
+        int deleted = repository.deleteByFilter(species, status, gender, origin);
+        distinctValues.invalidate();
+        nameIndex.invalidate();
+        if (deleted > 0) {
+            datenVersion.bump(Bereich.CHARAKTERE);
+            events.publishEvent(AenderungEvent.charakterReset());
+        }
+        return deleted;
+    }
+
+    /**
+     * Prüft, ob alle gesetzten Filterwerte im Wörterbuch stehen. Ein unbekannter Wert kann nichts treffen;
+     * die Abfrage wird dann übersprungen, ohne den Wert ins Wörterbuch einzutragen.
+     */
+    private boolean isKnown(String... filterValues) {
+        for (String value : filterValues) {
+            if (value != null && !werte.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void requireFilter(String species, String status, String gender, String origin) {
+        if (species == null && status == null && gender == null && origin == null) {
+            throw new InvalidCharakterDataException("Mindestens ein Filter muss angegeben werden");
+        }
+    }
+
+    // --- Paginierung ---
+
+    /**
+     * Prüft das Limit und liefert den Cursor (0 für die erste Seite).
+     * Die Seiten-Abfragen laden ein Element mehr als angefordert, um zu erkennen, ob eine weitere Seite existiert.
+     */
+    private long cursorOf(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidCharakterDataException(
+                    "Limit muss zwischen 1 und " + MAX_PAGE_SIZE + " liegen");
+        }
+        return after == null ? 0L : after;
+    }
+
+    /**
+     * Schneidet das zusätzlich geladene Element ab und setzt den Cursor, falls eine weitere Seite existiert.
+     */
+    private <T> CursorPageDTO<T> toPage(List<T> items, int limit, Function<T, Long> idOf) {
+        if (items.size() <= limit) {
+            return new CursorPageDTO<>(items, null);
+        }
+        List<T> page = items.subList(0, limit);
+        return new CursorPageDTO<>(page, idOf.apply(page.get(limit - 1)));
     }
 
     // --- Validierungsmethoden ---
 
+    /**
+     * Validiert den Namen eines Charakters im Batch. Der Batch hat kein {@code @Valid} pro Eintrag,
+     * daher wird hier geprüft, was sonst erst beim Flush an der Spalte scheitern würde.
+     *
+     * @param name     der Name
+     * @param position Position des Eintrags in der Liste
+     * @throws InvalidCharakterDataException wenn der Name leer oder zu lang ist
+     */
+    private void validateBatchName(String name, int position) {
+        if (name == null || name.isBlank()) {
+            throw new InvalidCharakterDataException("Name des Charakters an Position " + position
+                    + " darf nicht leer sein");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new InvalidCharakterDataException("Name des Charakters an Position " + position
+                    + " darf höchstens " + MAX_NAME_LENGTH + " Zeichen lang sein");
+        }
+    }
+
     /**
      * Validiert den Status eines Charakters.
      *
@@ -0,0 +1,226 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.config.ReplicaDataSource;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.repository.DatenVersionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verwaltet den Datenstand der Charaktere und Favoriten, getrennt pro {@link Bereich}.
+ * <p>
+ * Jeder Schreibzugriff ruft {@link #bump(Bereich)} in seiner Transaktion auf. Die neue Version wird
+ * in der Tabelle "daten_version" gespeichert und erst nach dem Commit im Speicher übernommen,
+ * damit Leser nie eine Version sehen, deren Daten noch nicht sichtbar sind.
+ * Jeder Bereich hat eine eigene Zeile, Favoriten-Schreibzugriffe warten also nicht auf die Sperre der Charaktere.
+ * </p>
+ * <p>
+ * Die Zeilen werden beim Start angelegt, bevor der Webserver Requests annimmt. So erhöhen auch die ersten
+ * gleichzeitigen Schreibzugriffe auf einer leeren Datenbank nur bestehende Zeilen und scheitern nicht
+ * am Primärschlüssel.
+ * </p>
+ * <p>
+ * <strong>Mehrere Instanzen:</strong> Standardmässig liest {@link #current(Bereich)} nur den Speicher und
+ * braucht nach dem ersten Aufruf keine Datenbank; Schreibzugriffe anderer Instanzen oder direkt in der
+ * Datenbank werden dann erst nach einem Neustart erkannt. Das reicht nur für eine einzelne Instanz.
+ * Mit {@code app.daten-version.shared=true} liest {@link #current(Bereich)} die Version bei jedem Aufruf
+ * aus der Zeile (ein Zugriff über den Primärschlüssel), damit ETags und Cache-Keys auch Änderungen anderer
+ * Instanzen erkennen.
+ * </p>
+ * <p>
+ * <strong>Lese-Replikat:</strong> Ein Request kann mit {@link #pinReadVersion} festlegen, welchen Stand er liest.
+ * {@link #readVersion(Bereich)} (für ETag und Cache-Key) und {@link #requiredVersion(Bereich)} (für das Routing
+ * in {@link ReplicaDataSource}) liefern dann dieselbe Version. Ohne Replikat ist das immer der aktuelle Stand.
+ * </p>
+ */
+@Service
+public class DatenVersionService implements SmartInitializingSingleton {
+
+    /**
+     * Markiert im Lesestand einen Bereich, den der Request nicht liest.
+     */
+    private static final long NOT_PINNED = -1;
+
+    private final DatenVersionRepository repository;
+    private final TransactionTemplate transaction;
+    private final boolean shared;
+    private final ObjectProvider<ReplicaDataSource> replica;
+
+    /**
+     * Zuletzt committete Version pro Bereich, -1 solange noch nicht geladen.
+     */
+    private final Map<Bereich, AtomicLong> current = new EnumMap<>(Bereich.class);
+
+    /**
+     * Vom aktuellen Request festgelegter Lesestand, Index ist {@link Bereich#ordinal()}.
+     */
+    private final ThreadLocal<long[]> pinned = new ThreadLocal<>();
+
+    /**
+     * Konstruktor mit Repository-Injektion.
+     *
+     * @param repository         Repository für den Datenstand
+     * @param transactionManager Transaktionsmanager für das Anlegen der Zeilen beim Start
+     * @param shared             Version bei jedem Aufruf aus der Datenbank lesen (mehrere Instanzen)
+     * @param replica            Lese-DataSource, falls ein Replikat konfiguriert ist
+     */
+    public DatenVersionService(DatenVersionRepository repository, PlatformTransactionManager transactionManager,
+                               @Value("${app.daten-version.shared:false}") boolean shared,
+                               ObjectProvider<ReplicaDataSource> replica) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.shared = shared;
+        this.replica = replica;
+        for (Bereich bereich : Bereich.values()) {
+            current.put(bereich, new AtomicLong(-1));
+        }
+    }
+
+    /**
+     * Gibt den zuletzt committeten Datenstand eines Bereichs zurück. Beim ersten Aufruf
+     * (oder mit {@code app.daten-version.shared=true} bei jedem Aufruf) wird er aus der Datenbank geladen.
+     *
+     * @param bereich Bereich des Datenstands
+     * @return aktuelle Version
+     */
+    public long current(Bereich bereich) {
+        AtomicLong version = current.get(bereich);
+        long known = version.get();
+        if (known >= 0 && !shared) {
+            return known;
+        }
+        long loaded = repository.findVersion(bereich.id()).orElse(0L);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // in einer Schreibtransaktion ist die gelesene Version evtl. noch nicht committet
+            return Math.max(known, loaded);
+        }
+        return version.accumulateAndGet(loaded, Math::max);
+    }
+
+    /**
+     * Gibt den zuletzt committeten Datenstand eines Bereichs zurück, ohne die Datenbank zu lesen.
+     * Wird beim Routing auf das Replikat verwendet, wo kein Datenbankzugriff erlaubt ist.
+     *
+     * @param bereich Bereich des Datenstands
+     * @return aktuelle Version oder -1, solange sie noch nicht geladen wurde
+     */
+    public long committed(Bereich bereich) {
+        return current.get(bereich).get();
+    }
+
+    /**
+     * Legt für den aktuellen Thread fest, welchen Datenstand er in den angegebenen Bereichen liest. Mit Replikat
+     * kann das ein älterer Stand sein ({@link ReplicaDataSource#readableVersion}), ohne Replikat passiert nichts.
+     * Für die übrigen Bereiche stellt der Thread keine Anforderung an das Replikat.
+     * Muss mit {@link #releaseReadVersion()} wieder freigegeben werden.
+     *
+     * @param bereiche Bereiche, die der Thread liest
+     */
+    public void pinReadVersion(Bereich... bereiche) {
+        ReplicaDataSource reads = replica.getIfAvailable();
+        if (reads == null) {
+            return;
+        }
+        long[] versions = new long[Bereich.values().length];
+        Arrays.fill(versions, NOT_PINNED);
+        for (Bereich bereich : bereiche) {
+            versions[bereich.ordinal()] = reads.readableVersion(bereich, current(bereich));
+        }
+        pinned.set(versions);
+    }
+
+    /**
+     * Gibt den mit {@link #pinReadVersion} festgelegten Lesestand frei.
+     */
+    public void releaseReadVersion() {
+        pinned.remove();
+    }
+
+    /**
+     * Gibt den Datenstand zurück, den der aktuelle Thread liest: den festgelegten Lesestand oder
+     * {@link #current(Bereich)}. Für ETags und Cache-Keys.
+     *
+     * @param bereich Bereich des Datenstands
+     * @return gelesene Version
+     */
+    public long readVersion(Bereich bereich) {
+        long[] versions = pinned.get();
+        if (versions == null || versions[bereich.ordinal()] == NOT_PINNED) {
+            return current(bereich);
+        }
+        return versions[bereich.ordinal()];
+    }
+
+    /**
+     * Gibt die Version zurück, die das Replikat für den aktuellen Thread erreicht haben muss: den festgelegten
+     * Lesestand (0 für Bereiche, die der Request nicht liest) oder {@link #committed(Bereich)}.
+     * Liest nie die Datenbank.
+     *
+     * @param bereich Bereich des Datenstands
+     * @return geforderte Version oder -1, solange sie noch nicht geladen wurde
+     */
+    public long requiredVersion(Bereich bereich) {
+        long[] versions = pinned.get();
+        if (versions == null) {
+            return committed(bereich);
+        }
+        return versions[bereich.ordinal()] == NOT_PINNED ? 0 : versions[bereich.ordinal()];
+    }
+
+    /**
+     * Legt die Zeilen beim Start an, falls sie fehlen, und lädt den Datenstand,
+     * damit {@link #committed(Bereich)} sofort einen Wert hat.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Bereich bereich : Bereich.values()) {
+            try {
+                transaction.executeWithoutResult(status -> repository.insertIfMissing(bereich.id()));
+            } catch (DataIntegrityViolationException e) {
+                // gleichzeitig von einer anderen Instanz angelegt
+            }
+            current(bereich);
+        }
+    }
+
+    /**
+     * Erhöht den Datenstand eines Bereichs in der laufenden Transaktion (oder einer eigenen, falls keine läuft).
+     * Sollte am Ende eines Schreibzugriffs aufgerufen werden, da die Zeile bis zum Commit gesperrt bleibt.
+     *
+     * @param bereich Bereich, dessen Daten geändert wurden
+     */
+    @Transactional
+    public void bump(Bereich bereich) {
+        if (repository.increment(bereich.id()) == 0) {
+            // Zeile wurde nach dem Start gelöscht
+            repository.insertIfMissing(bereich.id());
+            repository.increment(bereich.id());
+        }
+        long next = repository.findVersion(bereich.id()).orElseThrow();
+        AtomicLong version = current.get(bereich);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.accumulateAndGet(next, Math::max);
+                }
+            });
+        } else {
+            version.accumulateAndGet(next, Math::max);
+        }
+    }
+}
@@ -1,28 +1,55 @@
 package com.m295.m295_backend.service;
 
+import com.m295.m295_backend.dto.AenderungDTO;
 import com.m295.m295_backend.dto.FavoritDTO;
+import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
 import com.m295.m295_backend.entity.Favorit;
+import com.m295.m295_backend.exception.InvalidCharakterDataException;
 import com.m295.m295_backend.repository.FavoritCharakterRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Service-Klasse für die Geschäftslogik der Favoriten.
+ * <p>
+ * Mit {@code app.favoriten.write-behind.enabled=true} werden Hinzufügen und Entfernen nicht sofort geschrieben,
+ * sondern über {@link FavoritWriteBehind} gesammelt; die Antwort kommt dann vor dem Speichern und
+ * neue Favoriten haben noch keine ID.
+ * </p>
  */
 @Service
 public class FavoritCharakterService {
 
     private final FavoritCharakterRepository favoritRepository;
+    private final DatenVersionService datenVersion;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Write-Behind-Puffer oder {@code null}, wenn synchron geschrieben wird.
+     */
+    private final FavoritWriteBehind writeBehind;
 
     /**
      * Konstruktor mit Repository-Injektion.
      *
      * @param favoritRepository das Repository für Favoriten
+     * @param datenVersion      Datenstand, wird bei jedem Schreibzugriff erhöht
+     * @param events            veröffentlicht Änderungen für den Änderungs-Feed
+     * @param writeBehind       Write-Behind-Puffer, nur vorhanden wenn aktiviert
      */
-    public FavoritCharakterService(FavoritCharakterRepository favoritRepository) {
+    public FavoritCharakterService(FavoritCharakterRepository favoritRepository, DatenVersionService datenVersion,
+                                   ApplicationEventPublisher events, ObjectProvider<FavoritWriteBehind> writeBehind) {
         this.favoritRepository = favoritRepository;
+        this.datenVersion = datenVersion;
+        this.events = events;
+        this.writeBehind = writeBehind.getIfAvailable();
     }
 
     /**
@@ -38,27 +65,139 @@ public class FavoritCharakterService {
     }
 
     /**
-     * Speichert einen neuen Favoriten in der Datenbank.
+     * Gibt alle Favoriten mit den aktuellen Daten ihres Charakters zurück.
+     * Name, Status, Spezies, Geschlecht und Herkunft kommen aus {@code charaktere}, falls der Charakter
+     * noch existiert, sonst aus der beim Speichern kopierten Version. Es wird nur eine Abfrage ausgeführt.
+     *
+     * @return Liste von FavoritDTOs mit aktuellen Daten
+     */
+    @Transactional(readOnly = true)
+    public List<FavoritDTO> getAllFavoritenEnriched() {
+        return favoritRepository.findAllWithCharakter()
+                .stream()
+                .map(row -> convertToDTO((Favorit) row[0], (Charakter) row[1]))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Speichert einen Favoriten in der Datenbank.
+     * Ist der Charakter bereits Favorit, werden dessen Daten aktualisiert (Upsert),
+     * wiederholtes Speichern erzeugt also keine Duplikate.
      *
      * @param dto FavoritDTO mit den Daten
      * @return das gespeicherte FavoritDTO
+     * @throws InvalidCharakterDataException wenn charakterId, Name, Status oder Bild fehlen
      */
+    @Transactional
     public FavoritDTO saveFavorit(FavoritDTO dto) {
-        // Wenn dto.getId() gesetzt ist → WEG DAMIT
-        dto.setId(null); // <-- Das ist entscheidend!
+        if (dto.getCharakterId() == null) {
+            throw new InvalidCharakterDataException("charakterId darf nicht null sein");
+        }
+        // Wenn dto.getId() gesetzt ist → WEG DAMIT, massgebend ist die charakterId
+        dto.setId(null);
+
+        Favorit favorit = convertToEntity(dto);
+        validate(favorit);
+        if (writeBehind != null) {
+            FavoritDTO queued = convertToDTO(favorit);
+            writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(favorit, queued, null));
+            return queued;
+        }
+        FavoritDTO saved = convertToDTO(favoritRepository.upsert(favorit));
+        datenVersion.bump(Bereich.FAVORITEN);
+        events.publishEvent(AenderungEvent.favorit(AenderungDTO.Typ.UPDATED, saved.getCharakterId(), saved));
+        return saved;
+    }
+
+    /**
+     * Sucht den Favoriten eines Charakters.
+     *
+     * @param charakterId ID des Charakters
+     * @return Optional mit dem FavoritDTO, leer wenn der Charakter kein Favorit ist
+     */
+    public Optional<FavoritDTO> getFavoritByCharakterId(Long charakterId) {
+        if (writeBehind != null) {
+            Optional<FavoritWriteBehind.Operation> wartend = writeBehind.pending(charakterId);
+            if (wartend.isPresent()) {
+                return Optional.ofNullable(wartend.get().dto());
+            }
+        }
+        return favoritRepository.findByCharakterId(charakterId).map(this::convertToDTO);
+    }
+
+    /**
+     * Schaltet den Favoriten-Status eines Charakters um.
+     * Ist der Charakter Favorit, wird der Favorit entfernt, sonst wird er mit den Daten aus dem DTO angelegt.
+     *
+     * @param charakterId ID des Charakters
+     * @param dto         Daten für den neuen Favoriten (nur nötig, wenn er angelegt wird)
+     * @return Optional mit dem angelegten FavoritDTO, leer wenn der Favorit entfernt wurde
+     * @throws InvalidCharakterDataException wenn der Favorit angelegt werden soll, aber keine oder unvollständige
+     *                                       Daten vorhanden sind
+     */
+    @Transactional
+    public Optional<FavoritDTO> toggleFavorit(Long charakterId, FavoritDTO dto) {
+        if (writeBehind != null) {
+            return toggleWriteBehind(charakterId, dto);
+        }
+        if (favoritRepository.removeByCharakterId(charakterId) > 0) {
+            datenVersion.bump(Bereich.FAVORITEN);
+            events.publishEvent(AenderungEvent.favorit(AenderungDTO.Typ.DELETED, charakterId, null));
+            return Optional.empty();
+        }
+        Favorit favorit = toggleEntity(charakterId, dto);
+        FavoritDTO saved = convertToDTO(favoritRepository.upsert(favorit));
+        datenVersion.bump(Bereich.FAVORITEN);
+        events.publishEvent(AenderungEvent.favorit(AenderungDTO.Typ.UPDATED, charakterId, saved));
+        return Optional.of(saved);
+    }
 
+    /**
+     * Schaltet um, ohne zu schreiben. Der aktuelle Stand kommt aus der wartenden Operation
+     * oder, falls keine wartet, aus der Datenbank; {@link FavoritWriteBehind#toggle} prüft beides atomar.
+     */
+    private Optional<FavoritDTO> toggleWriteBehind(Long charakterId, FavoritDTO dto) {
+        FavoritWriteBehind.Operation operation = writeBehind.toggle(charakterId,
+                () -> favoritRepository.existsByCharakterId(charakterId),
+                () -> {
+                    Favorit favorit = toggleEntity(charakterId, dto);
+                    return FavoritWriteBehind.Operation.upsert(favorit, convertToDTO(favorit), false);
+                });
+        return Optional.ofNullable(operation.dto());
+    }
+
+    /**
+     * Erstellt den Favoriten für {@link #toggleFavorit}; massgebend ist die charakterId aus dem Pfad.
+     */
+    private Favorit toggleEntity(Long charakterId, FavoritDTO dto) {
+        if (dto == null) {
+            throw new InvalidCharakterDataException("Favoritdaten fehlen für Charakter " + charakterId);
+        }
         Favorit favorit = convertToEntity(dto);
-        Favorit saved = favoritRepository.save(favorit);
-        return convertToDTO(saved);
+        favorit.setId(null);
+        favorit.setCharakterId(charakterId);
+        validate(favorit);
+        return favorit;
     }
 
     /**
-     * Löscht einen Favoriten anhand seiner ID.
+     * Löscht einen Favoriten anhand seiner ID. Unbekannte IDs werden ignoriert.
      *
      * @param id ID des Favoriten
      */
+    @Transactional
     public void deleteFavorit(Long id) {
-        favoritRepository.deleteById(id);
+        if (writeBehind != null) {
+            favoritRepository.findById(id).ifPresent(favorit ->
+                    writeBehind.enqueue(FavoritWriteBehind.Operation.remove(favorit.getCharakterId(), true)));
+            return;
+        }
+        // wie deleteById, aber mit der charakterId für den Änderungs-Feed
+        favoritRepository.findById(id).ifPresent(favorit -> {
+            favoritRepository.delete(favorit);
+            datenVersion.bump(Bereich.FAVORITEN);
+            events.publishEvent(AenderungEvent.favorit(AenderungDTO.Typ.DELETED, favorit.getCharakterId(), null));
+        });
     }
 
     /**
@@ -81,6 +220,49 @@ public class FavoritCharakterService {
         return dto;
     }
 
+    /**
+     * Wandelt einen Favoriten in ein FavoritDTO um und übernimmt die aktuellen Daten des Charakters.
+     *
+     * @param favorit   das Favorit-Entity
+     * @param charakter der aktuelle Charakter oder null, wenn er nicht mehr existiert
+     * @return entsprechendes FavoritDTO
+     */
+    private FavoritDTO convertToDTO(Favorit favorit, Charakter charakter) {
+        if (charakter == null) {
+            return convertToDTO(favorit);
+        }
+        FavoritDTO dto = new FavoritDTO(
+                favorit.getCharakterId(),
+                charakter.getName(),
+                charakter.getStatus(),
+                favorit.getImage(),
+                charakter.getSpecies(),
+                charakter.getGender(),
+                charakter.getOrigin()
+        );
+        dto.setId(favorit.getId());
+        return dto;
+    }
+
+    /**
+     * Prüft die Pflichtfelder, bevor der Favorit gespeichert oder im Write-Behind-Puffer abgelegt wird.
+     * Ohne diese Prüfung würde ein ungültiger Favorit erst beim verzögerten Schreiben scheitern.
+     *
+     * @param favorit der Favorit
+     * @throws InvalidCharakterDataException wenn Name, Status oder Bild fehlen
+     */
+    private void validate(Favorit favorit) {
+        if (favorit.getName() == null || favorit.getName().isBlank()) {
+            throw new InvalidCharakterDataException("Name des Favoriten darf nicht leer sein");
+        }
+        if (favorit.getStatus() == null || favorit.getStatus().isBlank()) {
+            throw new InvalidCharakterDataException("Status des Favoriten darf nicht leer sein");
+        }
+        if (favorit.getImage() == null || favorit.getImage().isBlank()) {
+            throw new InvalidCharakterDataException("Bild des Favoriten darf nicht leer sein");
+        }
+    }
+
     private Favorit convertToEntity(FavoritDTO dto) {
         Favorit favorit = new Favorit();
         favorit.setId(dto.getId());  // ok, kann null sein bei neuen Einträgen
@@ -0,0 +1,436 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.dto.AenderungDTO;
+import com.m295.m295_backend.dto.FavoritDTO;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.entity.Favorit;
+import com.m295.m295_backend.repository.FavoritCharakterRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Schreibt Favoriten verzögert und gesammelt (Write-Behind), aktiv mit {@code app.favoriten.write-behind.enabled=true}.
+ * <p>
+ * {@link FavoritCharakterService} legt Hinzufügen und Entfernen hier ab und antwortet sofort. Pro Charakter
+ * zählt nur die letzte Operation; wurde ein Favorit hinzugefügt und wieder entfernt, bevor er gespeichert war,
+ * fallen beide weg. Ein Hintergrund-Thread schreibt alle {@code flush-interval-ms} oder sobald
+ * {@code max-batch} Charaktere warten, in einer Transaktion mit JDBC-Batches.
+ * </p>
+ * <p>
+ * Die Warteschlange ist auf {@code queue-capacity} Charaktere begrenzt. Ist sie voll, schreibt der aufrufende
+ * Thread die wartenden Operationen selbst (Gegendruck statt Datenverlust). Beim Herunterfahren wird alles
+ * Wartende geschrieben.
+ * </p>
+ * <p>
+ * Schlägt ein Batch fehl, werden seine Operationen einzeln geschrieben. Ist die Datenbank nicht erreichbar
+ * (vorübergehender Fehler), bleiben die restlichen Operationen für den nächsten Versuch stehen. Eine Operation,
+ * die auch einzeln an den Daten scheitert, wird nur protokolliert und gezählt ({@code favoriten.writebehind.deadletter}),
+ * damit sie die anderen Operationen nicht blockiert.
+ * </p>
+ * <p>
+ * Listen der Favoriten sehen neue Operationen erst nach dem Schreiben (höchstens {@code flush-interval-ms} später);
+ * Abfragen und Umschalten pro Charakter berücksichtigen die wartenden Operationen.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.favoriten.write-behind.enabled", havingValue = "true")
+public class FavoritWriteBehind implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoritWriteBehind.class);
+
+    /**
+     * Anzahl Charakter-IDs pro DELETE, damit die IN-Liste klein bleibt.
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    /**
+     * Wartende Operation für einen Charakter.
+     *
+     * @param charakterId     ID des Charakters
+     * @param favorit         zu speichernder Favorit oder {@code null} zum Entfernen
+     * @param dto             Favorit als DTO für Antwort und Änderungs-Feed oder {@code null} zum Entfernen
+     * @param existedBefore   ob der Favorit vor der ersten wartenden Operation gespeichert war ({@code null} = unbekannt)
+     * @param enqueuedAtNanos Zeitpunkt der ersten wartenden Operation für diesen Charakter
+     */
+    record Operation(Long charakterId, Favorit favorit, FavoritDTO dto, Boolean existedBefore, long enqueuedAtNanos) {
+
+        static Operation upsert(Favorit favorit, FavoritDTO dto, Boolean existedBefore) {
+            return new Operation(favorit.getCharakterId(), favorit, dto, existedBefore, System.nanoTime());
+        }
+
+        static Operation remove(Long charakterId, Boolean existedBefore) {
+            return new Operation(charakterId, null, null, existedBefore, System.nanoTime());
+        }
+
+        boolean isRemove() {
+            return favorit == null;
+        }
+    }
+
+    private final FavoritCharakterRepository favoritRepository;
+    private final DatenVersionService datenVersion;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transaction;
+    private final int maxBatch;
+    private final int queueCapacity;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Wartende Operationen in Reihenfolge des ersten Eintrags, nur unter {@code synchronized (this)} verwendet.
+     */
+    private LinkedHashMap<Long, Operation> pending = new LinkedHashMap<>();
+
+    /**
+     * Operationen, die gerade geschrieben werden, damit Abfragen sie bis zum Commit noch sehen.
+     */
+    private Map<Long, Operation> inFlight = Map.of();
+
+    private final Object flushLock = new Object();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong callerFlushes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    /**
+     * Wird nach jedem Commit eines Flushs erhöht, nur unter {@code synchronized (this)} verwendet. Damit erkennt
+     * {@link #toggle}, dass der gelesene Stand der Datenbank inzwischen überholt ist.
+     */
+    private long generation;
+
+    /**
+     * Erstellt den Write-Behind-Puffer und startet den Hintergrund-Thread.
+     *
+     * @param favoritRepository  Repository für Favoriten
+     * @param datenVersion       Datenstand, wird pro geschriebenem Batch einmal erhöht
+     * @param events             veröffentlicht die Änderungen nach dem Schreiben für den Änderungs-Feed
+     * @param transactionManager Transaktionsmanager für die Batch-Transaktionen
+     * @param maxBatch           Anzahl wartender Charaktere, ab der sofort geschrieben wird
+     * @param queueCapacity      maximale Anzahl wartender Charaktere
+     * @param flushIntervalMs    maximale Wartezeit einer Operation bis zum Schreiben
+     */
+    public FavoritWriteBehind(FavoritCharakterRepository favoritRepository, DatenVersionService datenVersion,
+                              ApplicationEventPublisher events, PlatformTransactionManager transactionManager,
+                              @Value("${app.favoriten.write-behind.max-batch:500}") int maxBatch,
+                              @Value("${app.favoriten.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.favoriten.write-behind.flush-interval-ms:200}") long flushIntervalMs) {
+        this.favoritRepository = favoritRepository;
+        this.datenVersion = datenVersion;
+        this.events = events;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // eigene Transaktion, auch wenn der aufrufende Thread selbst schreibt
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxBatch = maxBatch;
+        this.queueCapacity = queueCapacity;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("favoriten-write-behind-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Liefert die noch nicht gespeicherte Operation für einen Charakter.
+     *
+     * @param charakterId ID des Charakters
+     * @return Optional mit der wartenden Operation, leer wenn für den Charakter nichts wartet
+     */
+    synchronized Optional<Operation> pending(Long charakterId) {
+        Operation operation = pending.get(charakterId);
+        return Optional.ofNullable(operation != null ? operation : inFlight.get(charakterId));
+    }
+
+    /**
+     * Legt eine Operation ab. Ist die Warteschlange voll, schreibt der aufrufende Thread zuerst selbst.
+     *
+     * @param operation die Operation
+     */
+    void enqueue(Operation operation) {
+        while (!offer(operation)) {
+            callerFlushes.incrementAndGet();
+            flush();
+        }
+    }
+
+    /**
+     * Schaltet den Favoriten eines Charakters um. Lesen des aktuellen Stands und Ablegen der Operation
+     * geschehen unter derselben Sperre, zwei gleichzeitige Aufrufe sehen also nie denselben Stand.
+     *
+     * @param charakterId  ID des Charakters
+     * @param storedExists liest, ob der Favorit gespeichert ist (ausserhalb der Sperre, nur ohne wartende Operation)
+     * @param upsert       erstellt die Operation zum Anlegen, falls der Favorit nicht existiert; Ausnahmen
+     *                     (z.B. fehlende Daten) werden weitergegeben, ohne etwas abzulegen
+     * @return die abgelegte Operation
+     */
+    Operation toggle(Long charakterId, BooleanSupplier storedExists, Supplier<Operation> upsert) {
+        while (true) {
+            long seen;
+            boolean known;
+            synchronized (this) {
+                seen = generation;
+                known = pending.containsKey(charakterId) || inFlight.containsKey(charakterId);
+            }
+            Boolean stored = known ? null : storedExists.getAsBoolean();
+            Operation operation = tryToggle(charakterId, stored, seen, upsert);
+            if (operation != null) {
+                return operation;
+            }
+            if (isFull()) {
+                callerFlushes.incrementAndGet();
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Legt die Operation zum Umschalten ab.
+     *
+     * @return die Operation oder {@code null}, wenn die Warteschlange voll oder der gelesene Stand überholt ist
+     */
+    private synchronized Operation tryToggle(Long charakterId, Boolean stored, long seen, Supplier<Operation> upsert) {
+        Operation previous = pending.get(charakterId);
+        if (previous == null) {
+            previous = inFlight.get(charakterId);
+        }
+        boolean exists;
+        if (previous != null) {
+            exists = !previous.isRemove();
+        } else if (stored != null && seen == generation) {
+            exists = stored;
+        } else {
+            return null;
+        }
+        Operation operation = exists ? Operation.remove(charakterId, true) : upsert.get();
+        if (!pending.containsKey(charakterId)) {
+            // Ausgangsstand ist der gerade gelesene, nicht der beim Erstellen angenommene
+            operation = new Operation(charakterId, operation.favorit(), operation.dto(), exists,
+                    operation.enqueuedAtNanos());
+        }
+        return offer(operation) ? operation : null;
+    }
+
+    private synchronized boolean isFull() {
+        return pending.size() >= queueCapacity;
+    }
+
+    private synchronized boolean offer(Operation operation) {
+        Operation previous = pending.get(operation.charakterId());
+        if (previous != null) {
+            coalesced.incrementAndGet();
+            if (operation.isRemove() && Boolean.FALSE.equals(previous.existedBefore())) {
+                // hinzugefügt und wieder entfernt, bevor etwas gespeichert wurde
+                pending.remove(operation.charakterId());
+            } else {
+                pending.put(operation.charakterId(), new Operation(operation.charakterId(), operation.favorit(),
+                        operation.dto(), previous.existedBefore(), previous.enqueuedAtNanos()));
+            }
+            return true;
+        }
+        if (pending.size() >= queueCapacity) {
+            return false;
+        }
+        pending.put(operation.charakterId(), operation);
+        if (pending.size() == maxBatch) {
+            flusher.execute(this::flushQuietly);
+        }
+        return true;
+    }
+
+    /**
+     * Schreibt alle wartenden Operationen in einer Transaktion. Es läuft immer nur ein Flush gleichzeitig.
+     * Schlägt der Batch fehl, werden die Operationen einzeln geschrieben (siehe Klassenbeschreibung).
+     *
+     * @throws RuntimeException wenn die Datenbank nicht erreichbar ist; die Operationen bleiben dann stehen
+     */
+    void flush() {
+        synchronized (flushLock) {
+            Map<Long, Operation> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                inFlight = batch;
+            }
+            try {
+                transaction.executeWithoutResult(status -> write(batch.values()));
+                written.addAndGet(batch.size());
+                flushes.incrementAndGet();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                writeOneByOne(batch.values(), e);
+            } finally {
+                synchronized (this) {
+                    inFlight = Map.of();
+                    generation++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Operationen eines fehlgeschlagenen Batches einzeln.
+     */
+    private void writeOneByOne(Collection<Operation> batch, RuntimeException batchFailure) {
+        if (isTransient(batchFailure)) {
+            requeue(batch);
+            throw batchFailure;
+        }
+        List<Operation> remaining = new ArrayList<>(batch);
+        while (!remaining.isEmpty()) {
+            Operation operation = remaining.get(0);
+            try {
+                transaction.executeWithoutResult(status -> write(List.of(operation)));
+                written.incrementAndGet();
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    requeue(remaining);
+                    throw e;
+                }
+                deadLetters.incrementAndGet();
+                log.error("Favorit für Charakter {} kann nicht gespeichert werden und wird verworfen: {}",
+                        operation.charakterId(), operation.dto(), e);
+            }
+            remaining.remove(0);
+        }
+    }
+
+    /**
+     * Legt Operationen wieder an den Anfang der Warteschlange; neuere Operationen haben Vorrang.
+     */
+    private synchronized void requeue(Collection<Operation> operations) {
+        LinkedHashMap<Long, Operation> retry = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            retry.put(operation.charakterId(), operation);
+        }
+        retry.putAll(pending);
+        pending = retry;
+    }
+
+    /**
+     * Vorübergehende Fehler (Datenbank nicht erreichbar, Timeout, Deadlock) lohnen einen späteren Versuch,
+     * Fehler in den Daten nicht.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Datenbank nicht erreichbar, Favoriten werden beim nächsten Intervall erneut geschrieben", e);
+        }
+    }
+
+    private void write(Iterable<Operation> batch) {
+        List<Favorit> upserts = new ArrayList<>();
+        List<Long> removes = new ArrayList<>();
+        for (Operation operation : batch) {
+            if (operation.isRemove()) {
+                removes.add(operation.charakterId());
+            } else {
+                upserts.add(operation.favorit());
+            }
+        }
+        favoritRepository.upsertAll(upserts);
+        for (int from = 0; from < removes.size(); from += DELETE_CHUNK_SIZE) {
+            favoritRepository.removeByCharakterIdIn(removes.subList(from, Math.min(from + DELETE_CHUNK_SIZE, removes.size())));
+        }
+        datenVersion.bump(Bereich.FAVORITEN);
+        for (Operation operation : batch) {
+            events.publishEvent(AenderungEvent.favorit(
+                    operation.isRemove() ? AenderungDTO.Typ.DELETED : AenderungDTO.Typ.UPDATED,
+                    operation.charakterId(), operation.dto()));
+        }
+    }
+
+    /**
+     * Registriert Länge und Alter der Warteschlange sowie Zähler für geschriebene und zusammengefasste Operationen.
+     *
+     * @param registry die Micrometer-Registry
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("favoriten.writebehind.pending", this, FavoritWriteBehind::pendingCount)
+                .description("Wartende Favoriten-Operationen (inkl. gerade geschriebener)")
+                .register(registry);
+        Gauge.builder("favoriten.writebehind.lag", this, FavoritWriteBehind::lagSeconds)
+                .description("Alter der ältesten noch nicht gespeicherten Operation")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("favoriten.writebehind.written", written, AtomicLong::get)
+                .description("Geschriebene Favoriten-Operationen").register(registry);
+        FunctionCounter.builder("favoriten.writebehind.coalesced", coalesced, AtomicLong::get)
+                .description("Durch eine neuere Operation ersetzte Operationen").register(registry);
+        FunctionCounter.builder("favoriten.writebehind.flushes", flushes, AtomicLong::get)
+                .description("Geschriebene Batches").register(registry);
+        FunctionCounter.builder("favoriten.writebehind.caller.flushes", callerFlushes, AtomicLong::get)
+                .description("Vom aufrufenden Thread geschriebene Batches (Warteschlange voll)").register(registry);
+        FunctionCounter.builder("favoriten.writebehind.failures", failures, AtomicLong::get)
+                .description("Fehlgeschlagene Batches").register(registry);
+        FunctionCounter.builder("favoriten.writebehind.deadletter", deadLetters, AtomicLong::get)
+                .description("Verworfene Operationen, die auch einzeln nicht geschrieben werden konnten").register(registry);
+    }
+
+    private synchronized double pendingCount() {
+        return pending.size() + inFlight.size();
+    }
+
+    private synchronized double lagSeconds() {
+        // die erste Operation jeder Map ist die älteste
+        long oldest = Long.MAX_VALUE;
+        if (!inFlight.isEmpty()) {
+            oldest = inFlight.values().iterator().next().enqueuedAtNanos();
+        }
+        if (!pending.isEmpty()) {
+            oldest = Math.min(oldest, pending.values().iterator().next().enqueuedAtNanos());
+        }
+        return oldest == Long.MAX_VALUE ? 0 : (System.nanoTime() - oldest) / 1e9;
+    }
+
+    /**
+     * Stoppt den Hintergrund-Thread und schreibt alle wartenden Operationen.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+}
@@ -0,0 +1,85 @@
+package com.m295.m295_backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prüft, dass die Metriken auf dem Management-Port abrufbar sind und Actuator auf dem
+ * Anwendungs-Port nicht erreichbar ist.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:actuator_metrics;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "management.server.port=0"
+})
+@AutoConfigureObservability(tracing = false)
+public class ActuatorMetricsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private Environment environment;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void testPrometheusExposesCachePoolAndServiceMeters() {
+        // Filter-Abfrage, damit Service-Timer, Cache und Pool benutzt werden
+        restTemplate.getForEntity(url(serverPort, "/api/characters/filter?species=Mensch"), String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(url(managementPort, "/actuator/prometheus"), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("cache_gets_total{cache=\"charakterFilter\"")
+                .contains("hikaricp_connections_active")
+                .contains("charakter_service_seconds_count")
+                .contains("charakter_changes_subscribers")
+                .contains("http_server_requests_seconds");
+    }
+
+    @Test
+    void testActuatorIsNotExposedOnApplicationPort() {
+        // eigener Port nur auf localhost (der Test ersetzt nur die Portnummer durch einen freien Port)
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        assertThat(environment.getProperty("management.server.address")).isEqualTo("127.0.0.1");
+
+        assertThat(restTemplate.getForEntity(url(serverPort, "/actuator/prometheus"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate.getForEntity(url(serverPort, "/actuator/health"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testOnlyConfiguredEndpointsAreExposed() {
+        assertThat(restTemplate.getForEntity(url(managementPort, "/actuator/health"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForEntity(url(managementPort, "/actuator/env"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate.getForEntity(url(managementPort, "/actuator/beans"), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static String url(int port, String path) {
+        return "http://localhost:" + port + path;
+    }
+}
@@ -0,0 +1,70 @@
+package com.m295.m295_backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class AdmissionControlDataSourceTest {
+
+    @Test
+    void testPermitIsReleasedOnceWhenConnectionIsClosed() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+        AdmissionControlDataSource dataSource = new AdmissionControlDataSource(target, 1, 50);
+
+        Connection first = dataSource.getConnection();
+        assertNoPermitForOtherThread(dataSource);
+
+        first.close();
+        first.close(); // doppeltes close darf kein zusätzliches Permit freigeben
+        Connection second = dataSource.getConnection();
+        assertNoPermitForOtherThread(dataSource);
+
+        second.close();
+        verify(raw, times(3)).close();
+    }
+
+    @Test
+    void testNestedConnectionOfPermitHolderDoesNotWaitForPermit() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        AdmissionControlDataSource dataSource = new AdmissionControlDataSource(target, 1, 50);
+
+        Connection outer = dataSource.getConnection();
+        // z.B. REQUIRES_NEW im selben Thread: kein zweites Permit nötig
+        Connection nested = dataSource.getConnection();
+        nested.close();
+
+        // anderer Thread muss weiterhin warten
+        assertNoPermitForOtherThread(dataSource);
+
+        outer.close();
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void testPermitIsReleasedWhenPoolFails() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool leer"))
+                .thenReturn(mock(Connection.class));
+        AdmissionControlDataSource dataSource = new AdmissionControlDataSource(target, 1, 50);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool leer");
+        dataSource.getConnection();
+    }
+
+    /**
+     * Ein Thread, der schon ein Permit hält, wartet nicht; deshalb wird aus einem anderen Thread geprüft.
+     */
+    private static void assertNoPermitForOtherThread(AdmissionControlDataSource dataSource) throws Exception {
+        CompletableFuture.runAsync(() -> assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)).get();
+    }
+}
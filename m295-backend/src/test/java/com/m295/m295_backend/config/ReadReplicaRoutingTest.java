@@ -0,0 +1,147 @@
+package com.m295.m295_backend.config;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.dto.FavoritDTO;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.service.CharakterService;
+import com.m295.m295_backend.service.DatenVersionService;
+import com.m295.m295_backend.service.FavoritCharakterService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prüft das Routing mit zwei H2-Datenbanken. Die Replikation wird mit {@code SCRIPT}/{@code RUNSCRIPT} nachgestellt,
+ * danach wird die Prüfung des Replikats direkt ausgelöst statt auf den Hintergrund-Thread zu warten.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.check-interval-ms=60000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private CharakterService service;
+
+    @Autowired
+    private FavoritCharakterService favoritService;
+
+    @Autowired
+    private DatenVersionService datenVersion;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    @Autowired
+    private ReplicaDataSource reads;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        // Replikat beginnt leer, unabhängig von früheren Tests
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        reads.checkReplica();
+    }
+
+    @Test
+    void testReadsUseReplicaOnlyWhenCaughtUp() {
+        service.createCharakter(new CharakterDTO(null, "Rick Sanchez", "Alive", "weiblich", "Zitadelle der Ricks", "Mensch"));
+
+        // Replikat noch leer: Lesezugriff geht an die primäre Datenbank
+        assertThat(names()).containsExactly("Rick Sanchez");
+        assertThat(reads.getReplicaConnections()).isZero();
+
+        replicate();
+        new JdbcTemplate(replica).update("INSERT INTO charaktere (id, name, species, gender, origin, status, version) "
+                + "SELECT id + 1000, 'Nur im Replikat', species, gender, origin, status, 0 FROM charaktere");
+
+        assertThat(names()).containsExactly("Rick Sanchez", "Nur im Replikat");
+        assertThat(reads.getReplicaConnections()).isPositive();
+
+        // Schreibzugriff: Replikat ist wieder hinter dem Datenstand
+        service.createCharakter(new CharakterDTO(null, "Morty Smith", "Alive", "weiblich", "Zitadelle der Ricks", "Mensch"));
+
+        assertThat(names()).containsExactly("Rick Sanchez", "Morty Smith");
+    }
+
+    @Test
+    void testFavoriteWriteKeepsCharacterListsOnReplica() {
+        CharakterDTO rick = service.createCharakter(
+                new CharakterDTO(null, "Rick Sanchez", "Alive", "weiblich", "Zitadelle der Ricks", "Mensch"));
+        replicate();
+        new JdbcTemplate(replica).update("INSERT INTO charaktere (id, name, species, gender, origin, status, version) "
+                + "SELECT id + 1000, 'Nur im Replikat', species, gender, origin, status, 0 FROM charaktere");
+
+        favoritService.saveFavorit(new FavoritDTO(rick.getId(), "Rick Sanchez", "Alive", "rick.png",
+                "Mensch", "weiblich", "Zitadelle der Ricks"));
+
+        // wie ein Listen-Request auf Charakter-Endpunkte: Favoriten spielen keine Rolle
+        datenVersion.pinReadVersion(Bereich.CHARAKTERE);
+        try {
+            assertThat(names()).containsExactly("Rick Sanchez", "Nur im Replikat");
+        } finally {
+            datenVersion.releaseReadVersion();
+        }
+
+        // ohne festgelegten Lesestand muss das Replikat in jedem Bereich aktuell sein
+        assertThat(names()).containsExactly("Rick Sanchez");
+    }
+
+    @Test
+    void testReplicaFailureFallsBackToPrimary() {
+        service.createCharakter(new CharakterDTO(null, "Rick Sanchez", "Alive", "weiblich", "Zitadelle der Ricks", "Mensch"));
+        replicate();
+        assertThat(names()).containsExactly("Rick Sanchez");
+        long replicaReads = reads.getReplicaConnections();
+
+        replica.close();
+
+        assertThat(names()).containsExactly("Rick Sanchez");
+        assertThat(reads.getReplicaConnections()).isEqualTo(replicaReads);
+    }
+
+    private List<String> names() {
+        return service.getAllCharaktersAsDTO().stream().map(CharakterDTO::getName).toList();
+    }
+
+    /**
+     * Kopiert den Stand der primären Datenbank ins Replikat.
+     */
+    private void replicate() {
+        String script = tempDir.resolve("replikat.sql").toString();
+        new JdbcTemplate(primary).execute("SCRIPT TO '" + script + "'");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("RUNSCRIPT FROM '" + script + "'");
+        reads.checkReplica();
+    }
+}
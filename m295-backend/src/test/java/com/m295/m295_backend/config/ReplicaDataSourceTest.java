@@ -0,0 +1,109 @@
+package com.m295.m295_backend.config;
+
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReplicaDataSourceTest {
+
+    @Test
+    void testGetConnectionUsesCachedProbeResult() throws Exception {
+        DataSource replica = mock(DataSource.class);
+        DataSource primary = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        Connection primaryConnection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaConnection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(result);
+        when(result.next()).thenReturn(true, true, false);
+        when(result.getLong(1)).thenReturn(Bereich.CHARAKTERE.id(), Bereich.FAVORITEN.id());
+        when(result.getLong(2)).thenReturn(5L, 3L);
+        ReplicaDataSource dataSource = new ReplicaDataSource(replica, primary,
+                bereich -> bereich == Bereich.CHARAKTERE ? 5L : 3L, 60_000, 0);
+
+        // vor der ersten Prüfung ist das Replikat unbekannt
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        dataSource.checkReplica();
+        for (int i = 0; i < 3; i++) {
+            assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        }
+
+        // die Version wurde nur von der Prüfung gelesen, nicht bei jedem getConnection
+        verify(replicaConnection, times(1)).prepareStatement(anyString());
+        assertThat(dataSource.getReplicaConnections()).isEqualTo(3);
+        assertThat(dataSource.getPrimaryConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testRequirementIsComparedPerArea() throws Exception {
+        DataSource replica = mock(DataSource.class);
+        DataSource primary = mock(DataSource.class);
+        Connection replicaConnection = replicaReturning(replica, 5L, 3L);
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        long[] required = {5L, 3L};
+        ReplicaDataSource dataSource = new ReplicaDataSource(replica, primary,
+                bereich -> required[bereich.ordinal()], 60_000, 0);
+        dataSource.checkReplica();
+
+        // Favorit geschrieben: wer Favoriten liest, muss auf die primäre Datenbank
+        required[Bereich.FAVORITEN.ordinal()] = 4L;
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        // ein Request, der nur Charaktere liest, stellt an Favoriten keine Anforderung
+        required[Bereich.FAVORITEN.ordinal()] = 0L;
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void testReadableVersionAllowsLagOnlyWithinWindow() throws Exception {
+        DataSource replica = mock(DataSource.class);
+        replicaReturning(replica, 5L, 3L);
+        long[] committed = {5L, 3L};
+        ReplicaDataSource strict = new ReplicaDataSource(replica, mock(DataSource.class),
+                bereich -> committed[bereich.ordinal()], 60_000, 0);
+        ReplicaDataSource lagging = new ReplicaDataSource(replica, mock(DataSource.class),
+                bereich -> committed[bereich.ordinal()], 60_000, 60_000);
+        strict.checkReplica();
+        lagging.checkReplica();
+
+        committed[Bereich.CHARAKTERE.ordinal()] = 7L;
+
+        // ohne Fenster wird der committete Stand gelesen (von der primären Datenbank)
+        assertThat(strict.readableVersion(Bereich.CHARAKTERE, 7L)).isEqualTo(7L);
+        // im Fenster liest der Request den Stand des Replikats, ETag und Cache-Key passen dazu
+        assertThat(lagging.readableVersion(Bereich.CHARAKTERE, 7L)).isEqualTo(5L);
+        assertThat(lagging.readableVersion(Bereich.FAVORITEN, 3L)).isEqualTo(3L);
+    }
+
+    /**
+     * Replikat, dessen {@code daten_version} die angegebenen Versionen für Charaktere und Favoriten enthält.
+     * Jede Prüfung bekommt ein neues ResultSet, auch die im Hintergrund angestossenen.
+     */
+    private static Connection replicaReturning(DataSource replica, long charaktere, long favoriten) throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            ResultSet result = mock(ResultSet.class);
+            when(result.next()).thenReturn(true, true, false);
+            when(result.getLong(1)).thenReturn(Bereich.CHARAKTERE.id(), Bereich.FAVORITEN.id());
+            when(result.getLong(2)).thenReturn(charaktere, favoriten);
+            return result;
+        });
+        return connection;
+    }
+}
@@ -0,0 +1,80 @@
+package com.m295.m295_backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReplicaFallbackAspectTest {
+
+    private DataSource replica;
+    private DataSource primary;
+    private ReplicaDataSource reads;
+    private ReplicaFallbackAspect aspect;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replica = mock(DataSource.class);
+        primary = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replicaConnection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(result);
+        when(result.next()).thenReturn(false);
+        reads = new ReplicaDataSource(replica, primary, bereich -> 0L, 60_000, 0);
+        reads.checkReplica();
+        aspect = new ReplicaFallbackAspect(reads);
+    }
+
+    @Test
+    void testQueryFailingOnReplicaIsRepeatedOnPrimary() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            // erster Versuch bekommt das Replikat, das die Verbindung während der Abfrage verliert
+            if (reads.getConnection() != replica.getConnection()) {
+                return "primär";
+            }
+            throw new DataAccessResourceFailureException("Verbindung verloren",
+                    new SQLException("terminating connection", "57P01"));
+        });
+
+        assertThat(aspect.retryOnPrimary(joinPoint, readOnly())).isEqualTo("primär");
+        verify(joinPoint, times(2)).proceed();
+        assertThat(reads.getPrimaryConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testOtherErrorsAreNotRepeated() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            reads.getConnection();
+            throw new InvalidDataAccessResourceUsageException("Syntaxfehler",
+                    new SQLException("syntax error", "42601"));
+        });
+
+        assertThatThrownBy(() -> aspect.retryOnPrimary(joinPoint, readOnly()))
+                .isInstanceOf(InvalidDataAccessResourceUsageException.class);
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Transactional(readOnly = true)
+    private static Transactional readOnly() throws NoSuchMethodException {
+        return ReplicaFallbackAspectTest.class.getDeclaredMethod("readOnly").getAnnotation(Transactional.class);
+    }
+}
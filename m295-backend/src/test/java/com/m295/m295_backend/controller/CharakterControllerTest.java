@@ -1,33 +1,60 @@
 package com.m295.m295_backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.m295.m295_backend.dto.AenderungDTO;
 import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.dto.CursorPageDTO;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.service.AenderungEvent;
+import com.m295.m295_backend.service.AenderungsFeed;
+import com.m295.m295_backend.service.CharakterDistinctValues;
 import com.m295.m295_backend.service.CharakterService;
+import com.m295.m295_backend.service.DatenVersionService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CharakterController.class)
+@Import(AenderungsFeed.class)
 public class CharakterControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
-    @MockBean
+    @MockitoBean
     private CharakterService charakterService;
 
+    @MockitoBean
+    private DatenVersionService datenVersion;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AenderungsFeed aenderungsFeed;
+
     @Test
     void whenGetAllCharakters_thenReturnsJsonArray() throws Exception {
         CharakterDTO charakter1 = new CharakterDTO(1L, "Rick Sanchez", "Human", "Male", "Earth", "Alive");
@@ -38,10 +65,159 @@ public class CharakterControllerTest {
         Mockito.when(charakterService.getAllCharaktersAsDTO()).thenReturn(charakterList);
 
         mockMvc.perform(get("/api/characters/all")
+                        .param("unpaged", "true")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("Rick Sanchez"))
                 .andExpect(jsonPath("$[1].name").value("Morty Smith"));
     }
+
+    @Test
+    void whenIfNoneMatchesDataVersion_thenReturns304WithoutServiceCall() throws Exception {
+        Mockito.when(datenVersion.readVersion(Bereich.CHARAKTERE)).thenReturn(7L);
+
+        mockMvc.perform(get("/api/characters/facets")
+                        .header("If-None-Match", "W/\"v7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"v7\""));
+
+        Mockito.verifyNoInteractions(charakterService);
+    }
+
+    @Test
+    void whenDataVersionChanged_thenReturnsBodyWithNewETag() throws Exception {
+        Mockito.when(datenVersion.readVersion(Bereich.CHARAKTERE)).thenReturn(8L);
+        Mockito.when(charakterService.getAllCharaktersAsDTO()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/characters/all")
+                        .param("unpaged", "true")
+                        .header("If-None-Match", "W/\"v7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"v8\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+
+    @Test
+    void whenSubscribedToChanges_thenReceivesOnlyNewEventsAndCanResume() throws Exception {
+        aenderungsFeed.onAenderung(new AenderungEvent(AenderungDTO.Typ.DELETED, AenderungDTO.Entitaet.CHARAKTER, 1L, null));
+
+        MvcResult live = mockMvc.perform(get("/api/characters/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        aenderungsFeed.onAenderung(new AenderungEvent(AenderungDTO.Typ.CREATED, AenderungDTO.Entitaet.CHARAKTER, 2L,
+                new CharakterDTO(2L, "Morty Smith", "Alive", "Male", "Earth", "Human")));
+        aenderungsFeed.onAenderung(new AenderungEvent(AenderungDTO.Typ.DELETED, AenderungDTO.Entitaet.FAVORIT, 3L, null));
+
+        String stream = awaitContent(live, "\"schluessel\":3");
+        assertFalse(stream.contains("\"schluessel\":1"));
+        assertTrue(stream.contains("Morty Smith"));
+
+        // Neu verbinden nach dem ersten empfangenen Ereignis: nur das zweite wird nachgeliefert
+        Matcher firstId = Pattern.compile("id:(\\d+)").matcher(stream);
+        assertTrue(firstId.find());
+        MvcResult resumed = mockMvc.perform(get("/api/characters/changes")
+                        .header("Last-Event-ID", firstId.group(1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String replay = awaitContent(resumed, "\"schluessel\":3");
+        assertFalse(replay.contains("Morty Smith"));
+    }
+
+    @Test
+    void whenLastEventIdUnknown_thenReceivesReset() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/characters/changes")
+                        .header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitContent(result, "\"typ\":\"RESET\"");
+    }
+
+    /**
+     * Wartet, bis der SSE-Stream den erwarteten Text enthält (gesendet wird auf einem anderen Thread).
+     */
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), () -> "Erwartet: " + expected);
+        return content;
+    }
+
+    @Test
+    void whenAcceptCbor_thenReturnsCborEncodedList() throws Exception {
+        CharakterDTO charakter1 = new CharakterDTO(1L, "Rick Sanchez", "Human", "Male", "Earth", "Alive");
+
+        Mockito.when(charakterService.getAllCharaktersAsDTO()).thenReturn(List.of(charakter1));
+
+        MvcResult result = mockMvc.perform(get("/api/characters/all")
+                        .param("unpaged", "true")
+                        .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        JsonNode decoded = new ObjectMapper(new CBORFactory())
+                .readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, decoded.size());
+        assertEquals("Rick Sanchez", decoded.get(0).get("name").asText());
+    }
+
+    @Test
+    void whenGetAllWithCursor_thenReturnsPageWithNextCursor() throws Exception {
+        CharakterDTO charakter3 = new CharakterDTO(3L, "Summer Smith", "Human", "Female", "Earth", "Alive");
+
+        Mockito.when(charakterService.getCharaktersPageAsDTO(2L, 1))
+                .thenReturn(new CursorPageDTO<>(List.of(charakter3), 3L));
+
+        mockMvc.perform(get("/api/characters/all")
+                        .param("after", "2")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Summer Smith"))
+                .andExpect(jsonPath("$.nextCursor").value(3));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenExportAsCsv_thenStreamsHeaderAndOneLinePerCharakter() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<CharakterDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new CharakterDTO(1L, "Rick Sanchez", "Alive", "Male", "Earth, C-137", "Human"));
+            consumer.accept(new CharakterDTO(2L, "Morty Smith", "Alive", "Male", "Earth", "Human"));
+            return null;
+        }).when(charakterService).exportCharaktere(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/characters/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "id,name,status,species,gender,origin\n"
+                                + "1,Rick Sanchez,Alive,Human,Male,\"Earth, C-137\"\n"
+                                + "2,Morty Smith,Alive,Human,Male,Earth\n"));
+    }
+
+    @Test
+    void whenDistinctSpeciesWithMatchingETag_thenReturnsNotModified() throws Exception {
+        Mockito.when(charakterService.getDistinctSpecies())
+                .thenReturn(new CharakterDistinctValues.Snapshot(List.of("Alien", "Mensch"), "\"abc123\""));
+
+        mockMvc.perform(get("/api/characters/distinct/species"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(jsonPath("$[1]").value("Mensch"));
+
+        mockMvc.perform(get("/api/characters/distinct/species").header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
 }
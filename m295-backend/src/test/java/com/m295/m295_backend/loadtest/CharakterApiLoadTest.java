@@ -0,0 +1,340 @@
+package com.m295.m295_backend.loadtest;
+
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.service.CharakterService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lasttest für die REST-Endpunkte unter {@code /api/characters/**}.
+ *
+ * <p>
+ * Startet die Anwendung auf einem zufälligen Port gegen eine befüllte Datenbank (standardmässig H2 im
+ * PostgreSQL-Modus) und führt die Szenarien als offenes Modell aus: Requests starten in festem Takt,
+ * unabhängig davon, wie schnell die Antworten kommen. Die Latenz wird ab dem geplanten Startzeitpunkt
+ * gemessen, damit Rückstau nicht aus den Perzentilen verschwindet.
+ * </p>
+ *
+ * <p>
+ * Läuft nicht im normalen Build, nur mit dem Profil {@code loadtest}:
+ * </p>
+ * <pre>{@code
+ * mvn -Ploadtest test
+ * mvn -Ploadtest test -Dloadtest.scenarios=read-heavy,export -Dloadtest.duration-seconds=30 \
+ *     -Dloadtest.warmup-seconds=5 -Dloadtest.read-heavy.rate=500 -Dloadtest.seed=50000
+ * mvn -Ploadtest test -Dloadtest.url=jdbc:postgresql://localhost:5432/M295_db
+ * }</pre>
+ *
+ * <p>
+ * Der Bericht (Durchsatz, p50/p90/p99/max, Fehlerquote) wird ausgegeben und nach
+ * {@code target/loadtest-report.txt} geschrieben.
+ * </p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=warn"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CharakterApiLoadTest {
+
+    private static final String[] STATUS = {"alive", "dead", "unknown"};
+    private static final String[] GENDER = {"männlich", "weiblich", "geschlechtslos", "unbekannt"};
+    private static final String[] SPECIES = {"mensch", "alien", "roboter", "tier", "mutant"};
+    private static final String[] ORIGIN = {"erde (c-137)", "erde (ersatz-dimension)", "zitadelle der ricks",
+            "galaktisches föderationsgefängnis"};
+    private static final String[] NAMES = {"Rick", "Morty", "Summer", "Beth", "Jerry", "Birdperson",
+            "Squanchy", "Unity", "Gearhead", "Tammy"};
+
+    // Obergrenze offener Requests; darüber wird ein Request als Fehler gezählt statt gestartet
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CharakterService charakterService;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<Long> seededIds = new ArrayList<>();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("loadtest.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.username", "db_user"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.password", "db_password"));
+            return;
+        }
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.H2Dialect");
+    }
+
+    @BeforeAll
+    void seed() {
+        int size = Integer.getInteger("loadtest.seed", 10_000);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int from = 0; from < size; from += 1_000) {
+            List<CharakterDTO> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + 1_000, size); i++) {
+                batch.add(randomCharakter(random, NAMES[random.nextInt(NAMES.length)] + " " + i));
+            }
+            charakterService.createCharaktere(batch).forEach(dto -> seededIds.add(dto.getId()));
+        }
+    }
+
+    @Test
+    void runScenarios() throws Exception {
+        List<String> selected = Arrays.asList(System.getProperty("loadtest.scenarios",
+                "read-heavy,mixed-write,search-heavy,export").split(","));
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 10);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 3);
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios()) {
+            if (selected.contains(scenario.name)) {
+                int rate = Integer.getInteger("loadtest." + scenario.name + ".rate", scenario.defaultRate);
+                if (warmupSeconds > 0) {
+                    run(scenario, rate, warmupSeconds); // JIT und Caches aufwärmen, Ergebnis verwerfen
+                }
+                results.add(run(scenario, rate, durationSeconds));
+            }
+        }
+
+        String report = report(results);
+        System.out.println(report);
+        Files.writeString(Path.of("target", "loadtest-report.txt"), report, StandardCharsets.UTF_8);
+
+        assertThat(results).isNotEmpty();
+        assertThat(results).allSatisfy(result ->
+                assertThat(result.errorRate()).as(result.name + " Fehlerquote").isLessThanOrEqualTo(maxErrorRate));
+    }
+
+    // --- Szenarien ---
+
+    private List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("read-heavy", 200, random -> {
+                    int pick = random.nextInt(100);
+                    if (pick < 70) {
+                        return get("/api/characters/" + randomSeededId(random));
+                    }
+                    if (pick < 90) {
+                        return get("/api/characters/all?limit=100&after=" + randomSeededId(random));
+                    }
+                    return get("/api/characters/facets");
+                }),
+                new Scenario("mixed-write", 100, random -> {
+                    int pick = random.nextInt(100);
+                    if (pick < 50) {
+                        return get("/api/characters/" + randomSeededId(random));
+                    }
+                    if (pick < 75) {
+                        return json("POST", "/api/characters", randomCharakter(random, "Load " + random.nextInt()));
+                    }
+                    if (pick < 95) {
+                        long id = randomSeededId(random);
+                        return json("PUT", "/api/characters/" + id, randomCharakter(random, "Update " + id));
+                    }
+                    Long created = createdIds.poll();
+                    return created == null
+                            ? get("/api/characters/facets")
+                            : request("/api/characters/" + created).DELETE().build();
+                }),
+                new Scenario("search-heavy", 200, random -> {
+                    if (random.nextBoolean()) {
+                        String keyword = NAMES[random.nextInt(NAMES.length)].substring(0, 3).toLowerCase(Locale.ROOT);
+                        return get("/api/characters/search/name?keyword=" + keyword + "&limit=50");
+                    }
+                    return get("/api/characters/filter?species=" + encode(SPECIES[random.nextInt(SPECIES.length)])
+                            + "&status=" + STATUS[random.nextInt(STATUS.length)]);
+                }),
+                new Scenario("export", 2, random -> get("/api/characters/export?format="
+                        + (random.nextBoolean() ? "ndjson" : "csv")))
+        );
+    }
+
+    private Result run(Scenario scenario, int rate, int durationSeconds) throws InterruptedException {
+        int total = rate * durationSeconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long[] latencies = new long[total];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        SplittableRandom random = new SplittableRandom(scenario.name.hashCode());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int slot = i;
+            if (inFlight.incrementAndGet() > MAX_IN_FLIGHT) {
+                inFlight.decrementAndGet();
+                errors.incrementAndGet();
+                latencies[slot] = -1;
+                completed.incrementAndGet();
+                continue;
+            }
+            client.sendAsync(scenario.requests.apply(random), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        latencies[slot] = System.nanoTime() - intended;
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else if (response.request().method().equals("POST")) {
+                            rememberCreatedId(response.body());
+                        }
+                        inFlight.decrementAndGet();
+                        completed.incrementAndGet();
+                    });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (completed.get() < total && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int timedOut = total - completed.get();
+        return new Result(scenario.name, rate, total, errors.get() + timedOut, seconds,
+                Arrays.stream(latencies).filter(l -> l > 0).sorted().toArray());
+    }
+
+    // --- Requests ---
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, CharakterDTO dto) {
+        String body = String.format(
+                "{\"name\":\"%s\",\"status\":\"%s\",\"gender\":\"%s\",\"origin\":\"%s\",\"species\":\"%s\"}",
+                dto.getName(), dto.getStatus(), dto.getGender(), dto.getOrigin(), dto.getSpecies());
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private long randomSeededId(SplittableRandom random) {
+        return seededIds.get(random.nextInt(seededIds.size()));
+    }
+
+    private void rememberCreatedId(String body) {
+        int start = body.indexOf("\"id\":");
+        if (start >= 0) {
+            int end = start + 5;
+            while (end < body.length() && Character.isDigit(body.charAt(end))) {
+                end++;
+            }
+            createdIds.add(Long.parseLong(body.substring(start + 5, end)));
+        }
+    }
+
+    private static CharakterDTO randomCharakter(SplittableRandom random, String name) {
+        return new CharakterDTO(null, name, STATUS[random.nextInt(STATUS.length)],
+                GENDER[random.nextInt(GENDER.length)], ORIGIN[random.nextInt(ORIGIN.length)],
+                SPECIES[random.nextInt(SPECIES.length)]);
+    }
+
+    private static String encode(String value) {
+        return java.net.URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // --- Bericht ---
+
+    private static String report(List<Result> results) {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%-14s %8s %8s %10s %9s %9s %9s %9s %8s%n",
+                "Szenario", "Rate/s", "Requests", "Durchsatz", "p50 ms", "p90 ms", "p99 ms", "max ms", "Fehler"));
+        for (Result r : results) {
+            report.append(String.format(Locale.ROOT, "%-14s %8d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %7.2f%%%n",
+                    r.name, r.rate, r.total, r.throughput(), r.percentile(50), r.percentile(90),
+                    r.percentile(99), r.percentile(100), r.errorRate() * 100));
+        }
+        return report.toString();
+    }
+
+    private static final class Scenario {
+        private final String name;
+        private final int defaultRate;
+        private final Function<SplittableRandom, HttpRequest> requests;
+
+        private Scenario(String name, int defaultRate, Function<SplittableRandom, HttpRequest> requests) {
+            this.name = name;
+            this.defaultRate = defaultRate;
+            this.requests = requests;
+        }
+    }
+
+    private static final class Result {
+        private final String name;
+        private final int rate;
+        private final int total;
+        private final int errors;
+        private final double seconds;
+        private final long[] sortedLatencies;
+
+        private Result(String name, int rate, int total, int errors, double seconds, long[] sortedLatencies) {
+            this.name = name;
+            this.rate = rate;
+            this.total = total;
+            this.errors = errors;
+            this.seconds = seconds;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        double throughput() {
+            return (total - errors) / seconds;
+        }
+
+        double errorRate() {
+            return total == 0 ? 0 : (double) errors / total;
+        }
+
+        double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package com.m295.m295_backend.repository;
 
+import com.m295.m295_backend.dto.CharakterDTO;
 import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.entity.CharakterWoerterbuch;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test") // nutzt application-test.properties
+@Import(CharakterWoerterbuch.class)
 public class CharakterRepositoryTest {
 
     @Autowired
     private CharakterRepository charakterRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CharakterWoerterbuch werte;
+
     @BeforeEach
     void setup() {
         charakterRepository.deleteAll();
@@ -30,45 +46,45 @@ public class CharakterRepositoryTest {
     }
 
     @Test
-    void testFindBySpeciesIgnoreCase() {
-        List<Charakter> results = charakterRepository.findBySpeciesIgnoreCase("human");
+    void testFindBySpeciesMatchesAnyCase() {
+        List<Charakter> results = charakterRepository.findBySpecies("human");
         assertThat(results).hasSize(3);
     }
 
     @Test
-    void testFindByStatusIgnoreCase() {
-        List<Charakter> results = charakterRepository.findByStatusIgnoreCase("alive");
+    void testFindByStatusMatchesAnyCase() {
+        List<Charakter> results = charakterRepository.findByStatus("alive");
         assertThat(results).hasSize(3);
     }
 
     @Test
-    void testFindByGenderIgnoreCase() {
-        List<Charakter> results = charakterRepository.findByGenderIgnoreCase("female");
+    void testFindByGenderMatchesAnyCase() {
+        List<Charakter> results = charakterRepository.findByGender("female");
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getName()).isEqualTo("Summer Smith");
     }
 
     @Test
-    void testFindByOriginIgnoreCase() {
-        List<Charakter> results = charakterRepository.findByOriginIgnoreCase("Earth (C-137)");
+    void testFindByOriginMatchesAnyCase() {
+        List<Charakter> results = charakterRepository.findByOrigin("Earth (C-137)");
         assertThat(results).hasSize(2);
     }
 
     @Test
-    void testCountBySpeciesIgnoreCase() {
-        long count = charakterRepository.countBySpeciesIgnoreCase("human");
+    void testCountBySpeciesMatchesAnyCase() {
+        long count = charakterRepository.countBySpecies("human");
         assertThat(count).isEqualTo(3);
     }
 
     @Test
-    void testCountByStatusIgnoreCase() {
-        long count = charakterRepository.countByStatusIgnoreCase("dead");
+    void testCountByStatusMatchesAnyCase() {
+        long count = charakterRepository.countByStatus("dead");
         assertThat(count).isEqualTo(1);
     }
 
     @Test
-    void testCountByGenderIgnoreCase() {
-        long count = charakterRepository.countByGenderIgnoreCase("male");
+    void testCountByGenderMatchesAnyCase() {
+        long count = charakterRepository.countByGender("male");
         assertThat(count).isEqualTo(3);
     }
 
@@ -89,4 +105,127 @@ public class CharakterRepositoryTest {
         List<String> origins = charakterRepository.findDistinctOrigin();
         assertThat(origins).containsExactlyInAnyOrder("Earth (C-137)", "Bird World", "Earth (Replacement)");
     }
+
+    @Test
+    void testFilterSpecificationCombinesParameters() {
+        List<Charakter> results = charakterRepository.findAll(
+                CharakterSpecifications.filter("human", "ALIVE", null, "earth (c-137)"));
+        assertThat(results).extracting(Charakter::getName)
+                .containsExactlyInAnyOrder("Rick Sanchez", "Morty Smith");
+    }
+
+    @Test
+    void testFilterSpecificationWithoutParametersReturnsAll() {
+        List<Charakter> results = charakterRepository.findAll(
+                CharakterSpecifications.filter(null, null, null, null));
+        assertThat(results).hasSize(4);
+    }
+
+    @Test
+    void testFindFirstFromIdPivotWithFilter() {
+        Long minId = charakterRepository.findMinId();
+        Long maxId = charakterRepository.findMaxId();
+        assertThat(maxId - minId).isEqualTo(3);
+
+        // Ab der ID von Birdperson ist Summer Smith der erste lebende Mensch
+        Optional<Charakter> picked = charakterRepository.findBy(
+                CharakterSpecifications.filter("human", "alive", null, null)
+                        .and(CharakterSpecifications.idAtLeast(minId + 2)),
+                query -> query.sortBy(Sort.by("id")).first());
+        assertThat(picked).map(Charakter::getName).contains("Summer Smith");
+    }
+
+    @Test
+    void testCountGroupedBySpecies() {
+        List<FacetCount> counts = charakterRepository.countGroupedBySpecies();
+        assertThat(counts).extracting(FacetCount::getWert, FacetCount::getAnzahl)
+                .containsExactlyInAnyOrder(tuple("Human", 3L), tuple("Bird-Person", 1L));
+    }
+
+    @Test
+    void testUpdateByFilterChangesOnlyMatchingRows() {
+        int updated = charakterRepository.updateByFilter("HUMAN", null, "female", null,
+                "dead", null, null, null);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(charakterRepository.countByStatus("dead")).isEqualTo(2);
+        assertThat(charakterRepository.findByGender("female"))
+                .extracting(Charakter::getStatus, Charakter::getSpecies)
+                .containsExactly(tuple("dead", "Human"));
+    }
+
+    @Test
+    void testDeleteByFilterRemovesOnlyMatchingRows() {
+        int deleted = charakterRepository.deleteByFilter(null, null, null, "earth (c-137)");
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(charakterRepository.findAll()).extracting(Charakter::getName)
+                .containsExactlyInAnyOrder("Birdperson", "Summer Smith");
+    }
+
+    @Test
+    void testUpdateByIdChecksAndIncrementsVersion() {
+        Charakter birdperson = charakterRepository.findByNameContainingIgnoreCase("bird").get(0);
+        Long version = birdperson.getVersion();
+
+        int stale = charakterRepository.updateById(birdperson.getId(), version + 1,
+                "Phoenixperson", "alive", "Bird-Person", "Male", "Birdworld");
+        int updated = charakterRepository.updateById(birdperson.getId(), version,
+                "Phoenixperson", "alive", "Bird-Person", "Male", "Birdworld");
+
+        assertThat(stale).isZero();
+        assertThat(updated).isEqualTo(1);
+        Charakter reloaded = charakterRepository.findById(birdperson.getId()).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Phoenixperson");
+        assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void testUpdateByIdWithUnknownIdUpdatesNothing() {
+        int updated = charakterRepository.updateById(-1L, null,
+                "Nobody", "alive", "Human", "Male", "Earth");
+
+        assertThat(updated).isZero();
+    }
+
+    @Test
+    void testDictionaryEncodedValuesKeepFirstSpelling() {
+        charakterRepository.saveAndFlush(new Charakter("Jerry Smith", "ALIVE", "MALE", "EARTH (C-137)", "HUMAN"));
+        entityManager.clear(); // neu aus der Datenbank lesen
+
+        assertThat(charakterRepository.countBySpecies("human")).isEqualTo(4);
+        assertThat(charakterRepository.findDistinctSpecies()).containsExactlyInAnyOrder("Human", "Bird-Person");
+        assertThat(charakterRepository.findByNameContainingIgnoreCase("jerry"))
+                .extracting(Charakter::getSpecies, Charakter::getStatus)
+                .containsExactly(tuple("Human", "alive"));
+    }
+
+    @Test
+    void testNewDictionaryValueIsPrivateUntilCommit() {
+        charakterRepository.saveAndFlush(new Charakter("Gazorpazorp-Baby", "alive", "Male", "Gazorpazorp", "Gazorpian"));
+
+        // in der eigenen Transaktion sofort nutzbar
+        assertThat(charakterRepository.findBySpecies("gazorpian")).hasSize(1);
+        // für andere Transaktionen erst nach dem Commit (der Test endet mit einem Rollback)
+        assertThat(werte.contains("Gazorpian")).isFalse();
+    }
+
+    @Test
+    void testDtoProjectionsSelectWithoutEntities() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CharakterDTO> all = charakterRepository.findAllAsDTO();
+        List<CharakterDTO> page = charakterRepository.findDtoPageAfter(all.get(0).getId(), Limit.of(2));
+        List<CharakterDTO> filtered = charakterRepository.findDtos(
+                CharakterSpecifications.filter("human", null, "female", null));
+
+        assertThat(all).extracting(CharakterDTO::getName)
+                .containsExactly("Rick Sanchez", "Morty Smith", "Birdperson", "Summer Smith");
+        assertThat(page).extracting(CharakterDTO::getName).containsExactly("Morty Smith", "Birdperson");
+        assertThat(filtered).extracting(CharakterDTO::getName, CharakterDTO::getOrigin)
+                .containsExactly(tuple("Summer Smith", "Earth (Replacement)"));
+        // keine verwalteten Entities im Persistence-Context
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
 }
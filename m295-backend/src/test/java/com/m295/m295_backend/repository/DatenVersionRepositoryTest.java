@@ -0,0 +1,44 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.entity.CharakterWoerterbuch;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CharakterWoerterbuch.class) // Converter der Charakter-Entity
+@ActiveProfiles("test") // nutzt application-test.properties
+public class DatenVersionRepositoryTest {
+
+    @Autowired
+    private DatenVersionRepository repository;
+
+    @Test
+    void testInsertIfMissingCreatesRowOnlyOnce() {
+        long id = Bereich.CHARAKTERE.id();
+        assertThat(repository.findVersion(id)).isEmpty();
+
+        assertThat(repository.insertIfMissing(id)).isEqualTo(1);
+        assertThat(repository.increment(id)).isEqualTo(1);
+        assertThat(repository.insertIfMissing(id)).isZero();
+
+        assertThat(repository.findVersion(id)).contains(1L);
+    }
+
+    @Test
+    void testIncrementChangesOnlyItsOwnRow() {
+        repository.insertIfMissing(Bereich.CHARAKTERE.id());
+        repository.insertIfMissing(Bereich.FAVORITEN.id());
+
+        repository.increment(Bereich.FAVORITEN.id());
+        repository.increment(Bereich.FAVORITEN.id());
+
+        assertThat(repository.findVersion(Bereich.CHARAKTERE.id())).contains(0L);
+        assertThat(repository.findVersion(Bereich.FAVORITEN.id())).contains(2L);
+    }
+}
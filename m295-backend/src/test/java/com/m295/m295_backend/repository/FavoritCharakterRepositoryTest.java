@@ -0,0 +1,92 @@
+package com.m295.m295_backend.repository;
+
+import com.m295.m295_backend.entity.CharakterWoerterbuch;
+import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.entity.Favorit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CharakterWoerterbuch.class) // Converter der Charakter-Entity
+@ActiveProfiles("test") // nutzt application-test.properties
+public class FavoritCharakterRepositoryTest {
+
+    @Autowired
+    private FavoritCharakterRepository favoritRepository;
+
+    @Autowired
+    private CharakterRepository charakterRepository;
+
+    @BeforeEach
+    void setup() {
+        favoritRepository.deleteAll();
+        charakterRepository.deleteAll();
+    }
+
+    @Test
+    void testUpsertTwiceKeepsOneRowPerCharakter() {
+        Favorit first = favoritRepository.upsert(
+                new Favorit(1L, "Rick Sanchez", "Alive", "rick.png", "Human", "Male", "Earth"));
+        Favorit second = favoritRepository.upsert(
+                new Favorit(1L, "Rick Sanchez", "Dead", "rick.png", "Human", "Male", "Earth"));
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(favoritRepository.count()).isEqualTo(1);
+        assertThat(favoritRepository.findByCharakterId(1L))
+                .hasValueSatisfying(f -> assertThat(f.getStatus()).isEqualTo("Dead"));
+    }
+
+    @Test
+    void testRemoveByCharakterId() {
+        favoritRepository.upsert(new Favorit(2L, "Morty Smith", "Alive", "morty.png", "Human", "Male", "Earth"));
+
+        assertThat(favoritRepository.existsByCharakterId(2L)).isTrue();
+        assertThat(favoritRepository.removeByCharakterId(2L)).isEqualTo(1);
+        assertThat(favoritRepository.removeByCharakterId(2L)).isZero();
+        assertThat(favoritRepository.existsByCharakterId(2L)).isFalse();
+    }
+
+    @Test
+    void testUpsertAllAndRemoveByCharakterIdIn() {
+        favoritRepository.upsert(new Favorit(3L, "Summer Smith", "Alive", "summer.png", "Human", "Female", "Earth"));
+
+        favoritRepository.upsertAll(List.of(
+                new Favorit(3L, "Summer Smith", "Dead", "summer.png", "Human", "Female", "Earth"),
+                new Favorit(4L, "Beth Smith", "Alive", "beth.png", "Human", "Female", "Earth")));
+
+        assertThat(favoritRepository.count()).isEqualTo(2);
+        assertThat(favoritRepository.findByCharakterId(3L))
+                .hasValueSatisfying(f -> assertThat(f.getStatus()).isEqualTo("Dead"));
+
+        assertThat(favoritRepository.removeByCharakterIdIn(List.of(3L, 4L, 5L))).isEqualTo(2);
+        assertThat(favoritRepository.count()).isZero();
+    }
+
+    @Test
+    void testFindAllWithCharakterJoinsCurrentCharakter() {
+        Charakter rick = charakterRepository.save(
+                new Charakter("Rick Sanchez", "dead", "Male", "Earth (C-137)", "Human"));
+        favoritRepository.upsert(new Favorit(rick.getId(), "Rick Sanchez", "Alive", "rick.png", "Human", "Male", "Earth"));
+        favoritRepository.upsert(new Favorit(-1L, "Gelöscht", "Alive", "x.png", "Human", "Male", "Earth"));
+
+        List<Object[]> rows = favoritRepository.findAllWithCharakter();
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows).anySatisfy(row -> {
+            assertThat(((Favorit) row[0]).getCharakterId()).isEqualTo(rick.getId());
+            assertThat(((Charakter) row[1]).getStatus()).isEqualTo("dead");
+        });
+        assertThat(rows).anySatisfy(row -> {
+            assertThat(((Favorit) row[0]).getCharakterId()).isEqualTo(-1L);
+            assertThat(row[1]).isNull();
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.config.CacheConfig;
+import com.m295.m295_backend.dto.CharakterDTO;
+import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.mapper.CharakterMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prüft, dass Filter- und Suchergebnisse gecacht und erst nach dem Commit eines Schreibzugriffs verworfen werden.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:charakter_cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class CharakterCacheTest {
+
+    @Autowired
+    private CharakterService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        cache(CacheConfig.FILTER_CACHE).clear();
+        cache(CacheConfig.SEARCH_CACHE).clear();
+    }
+
+    @Test
+    void testFilterAndSearchResultsAreCachedAndEvictedAfterCreate() {
+        service.createCharakter(dto("Rick Sanchez"));
+        service.filterCharacters("Mensch", null, null, null);
+        int ricks = service.searchByNameKeyword("rick", 10).size();
+        assertThat(size(CacheConfig.FILTER_CACHE)).isEqualTo(1);
+        assertThat(size(CacheConfig.SEARCH_CACHE)).isEqualTo(1);
+
+        // gleiche Abfrage in anderer Schreibweise trifft denselben Eintrag
+        service.filterCharacters("mensch", null, null, null);
+        assertThat(size(CacheConfig.FILTER_CACHE)).isEqualTo(1);
+
+        service.createCharakter(dto("Rick Prime"));
+
+        assertThat(size(CacheConfig.FILTER_CACHE)).isZero();
+        assertThat(size(CacheConfig.SEARCH_CACHE)).isZero();
+        assertThat(service.searchByNameKeyword("rick", 10)).hasSize(ricks + 1);
+    }
+
+    @Test
+    void testUpdateAndDeleteEvictOnlyAfterCommit() {
+        CharakterDTO morty = service.createCharakter(dto("Morty Smith"));
+        service.filterCharacters("Mensch", null, null, null);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            Charakter values = CharakterMapper.toEntity(dto("Morty C-137"));
+            service.updateCharakter(morty.getId(), values, null);
+            // auch ohne erwartete Version ist die neue Version bekannt
+            assertThat(values.getVersion()).isEqualTo(1L);
+            // noch nicht committet: der Cache bleibt bis zum Commit bestehen
+            assertThat(size(CacheConfig.FILTER_CACHE)).isEqualTo(1);
+        });
+        assertThat(size(CacheConfig.FILTER_CACHE)).isZero();
+
+        service.filterCharacters("Mensch", null, null, null);
+        transaction.executeWithoutResult(status -> {
+            service.deleteCharakter(morty.getId());
+            status.setRollbackOnly();
+        });
+        // Rollback: nichts geändert, der Cache bleibt gültig
+        assertThat(size(CacheConfig.FILTER_CACHE)).isEqualTo(1);
+
+        service.deleteCharakter(morty.getId());
+        assertThat(size(CacheConfig.FILTER_CACHE)).isZero();
+    }
+
+    @Test
+    void testValueAddedAfterStartIsFilterableAfterCommit() {
+        // Wert, der beim Start noch nicht im Wörterbuch stand
+        service.createCharakter(new CharakterDTO(null, "Gearhead", "Alive", "männlich", "Zitadelle der Ricks", "Roboter"));
+
+        assertThat(service.filterCharacters("roboter", null, null, null))
+                .extracting(CharakterDTO::getName)
+                .containsExactly("Gearhead");
+        assertThat(service.countBySpecies("ROBOTER")).isEqualTo(1);
+    }
+
+    @Test
+    void testResultReadBeforeCommitIsNotServedAfterEvict() throws Exception {
+        service.createCharakter(dto("Rick Sanchez"));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        CountDownLatch gelesen = new CountDownLatch(1);
+        CountDownLatch geschrieben = new CountDownLatch(1);
+
+        // Leser fragt vor dem Schreibzugriff ab, legt das Ergebnis aber erst nach dessen Commit in den Cache
+        CompletableFuture<Void> leser = CompletableFuture.runAsync(() -> readOnly.executeWithoutResult(status -> {
+            service.filterCharacters("Mensch", null, null, null);
+            gelesen.countDown();
+            await(geschrieben);
+        }));
+        await(gelesen);
+        service.createCharakter(dto("Rick Prime"));
+        geschrieben.countDown();
+        leser.get();
+
+        assertThat(service.filterCharacters("Mensch", null, null, null))
+                .extracting(CharakterDTO::getName)
+                .contains("Rick Prime");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private long size(String name) {
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache(name).getNativeCache()).estimatedSize();
+    }
+
+    private static CharakterDTO dto(String name) {
+        return new CharakterDTO(null, name, "Alive", "weiblich", "Zitadelle der Ricks", "Mensch");
+    }
+}
@@ -0,0 +1,63 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.repository.CharakterRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharakterDistinctValuesTest {
+
+    @Mock
+    private CharakterRepository charakterRepository;
+
+    @InjectMocks
+    private CharakterDistinctValues distinctValues;
+
+    @Test
+    public void testListLoadedBeforeCommitIsReplacedAfterCommit() {
+        when(charakterRepository.findDistinctSpecies())
+                .thenReturn(List.of("Alien", "Mensch"))
+                .thenReturn(List.of("Alien", "Mensch", "Roboter"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            distinctValues.invalidate();
+            // paralleler Leser vor dem Commit sieht noch den alten Stand
+            assertThat(distinctValues.getSpecies().values()).containsExactly("Alien", "Mensch");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(distinctValues.getSpecies().values()).containsExactly("Alien", "Mensch", "Roboter");
+        verify(charakterRepository, times(2)).findDistinctSpecies();
+    }
+
+    @Test
+    public void testRollbackKeepsLists() {
+        when(charakterRepository.findDistinctSpecies()).thenReturn(List.of("Alien", "Mensch"));
+        CharakterDistinctValues.Snapshot before = distinctValues.getSpecies();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            distinctValues.onCreated("Roboter", "Erde");
+            // Rollback: afterCommit wird nie aufgerufen
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(distinctValues.getSpecies()).isSameAs(before);
+        verify(charakterRepository, times(1)).findDistinctSpecies();
+    }
+}
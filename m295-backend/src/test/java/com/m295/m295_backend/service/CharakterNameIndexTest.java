@@ -0,0 +1,132 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.repository.CharakterNameView;
+import com.m295.m295_backend.repository.CharakterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharakterNameIndexTest {
+
+    @Mock
+    private CharakterRepository charakterRepository;
+
+    @InjectMocks
+    private CharakterNameIndex nameIndex;
+
+    @BeforeEach
+    void setup() {
+        when(charakterRepository.findNamesAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                view(1L, "Rick Sanchez"),
+                view(2L, "Morty Smith"),
+                view(3L, "Summer Smith"),
+                view(4L, "Smith")
+        ));
+    }
+
+    @Test
+    public void testSearchRanksExactThenPrefixThenWordStart() {
+        List<Long> result = nameIndex.search("SMITH", 10);
+
+        assertThat(result).containsExactly(4L, 2L, 3L);
+    }
+
+    @Test
+    public void testSearchRespectsLimitAndShortKeywords() {
+        assertThat(nameIndex.search("sm", 2)).containsExactly(4L, 2L);
+        assertThat(nameIndex.search("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    public void testPutAndRemoveUpdateLoadedIndex() {
+        nameIndex.search("rick", 10);
+
+        nameIndex.put(1L, "Evil Morty");
+        nameIndex.put(5L, "Rick Prime");
+        nameIndex.remove(2L);
+
+        assertThat(nameIndex.search("rick", 10)).containsExactly(5L);
+        assertThat(nameIndex.search("morty", 10)).containsExactly(1L);
+        verify(charakterRepository, times(1)).findNamesAfter(eq(0L), any(Limit.class));
+    }
+
+    @Test
+    public void testChangesApplyOnlyAfterCommit() {
+        nameIndex.search("rick", 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            nameIndex.put(5L, "Rick Prime");
+            nameIndex.remove(1L);
+            assertThat(nameIndex.search("rick", 10)).containsExactly(1L);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(nameIndex.search("rick", 10)).containsExactly(5L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            nameIndex.put(6L, "Rick Rollback");
+            // Rollback: afterCommit wird nie aufgerufen
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(nameIndex.search("rollback", 10)).isEmpty();
+    }
+
+    @Test
+    public void testManyChangesRebuildIndexAndKeepNewerChanges() {
+        nameIndex.search("rick", 10);
+        for (long id = 100; id <= 100 + CharakterNameIndex.MAX_CHANGES; id++) {
+            nameIndex.put(id, "Klon " + id);
+        }
+        // der neue Stand aus der Datenbank enthält die Klone bereits
+        when(charakterRepository.findNamesAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                view(1L, "Rick Sanchez"),
+                view(100L, "Klon 100")
+        ));
+
+        assertThat(nameIndex.search("klon 100", 10)).startsWith(100L);
+        verify(charakterRepository, times(2)).findNamesAfter(eq(0L), any(Limit.class));
+
+        nameIndex.put(1L, "Rick Prime");
+        assertThat(nameIndex.search("rick", 10)).containsExactly(1L);
+        assertThat(nameIndex.search("prime", 10)).containsExactly(1L);
+        assertThat(nameIndex.search("klon 100", 10)).containsExactly(100L);
+    }
+
+    @Test
+    public void testEmptyKeywordMatchesAllNames() {
+        assertThat(nameIndex.search("", 10)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    private static CharakterNameView view(Long id, String name) {
+        return new CharakterNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -1,17 +1,29 @@
 package com.m295.m295_backend.service;
 
+import com.m295.m295_backend.dto.CharakterDTO;
 import com.m295.m295_backend.entity.Charakter;
+import com.m295.m295_backend.exception.CharakterNotFoundException;
+import com.m295.m295_backend.exception.InvalidCharakterDataException;
+import com.m295.m295_backend.exception.InvalidCharakterStatusException;
 import com.m295.m295_backend.repository.CharakterRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +32,15 @@ public class CharakterServiceTest {
     @Mock
     private CharakterRepository charakterRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private DatenVersionService datenVersion;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
     @InjectMocks
     private CharakterService charakterService;
 
@@ -50,4 +71,63 @@ public class CharakterServiceTest {
         assertThat(result.getName()).isEqualTo("Rick Sanchez");
     }
 
+    @Test
+    public void testCreateCharaktere_InvalidEntryPersistsNothing() {
+        CharakterDTO valid = new CharakterDTO(null, "Rick Sanchez", "alive", "männlich", "erde (c-137)", "mensch");
+        CharakterDTO invalid = new CharakterDTO(null, "Morty Smith", "verschollen", "männlich", "erde (c-137)", "mensch");
+
+        assertThatThrownBy(() -> charakterService.createCharaktere(List.of(valid, invalid)))
+                .isInstanceOf(InvalidCharakterStatusException.class);
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    public void testCreateCharaktere_InvalidNameReportsPositionAndPersistsNothing() {
+        CharakterDTO valid = new CharakterDTO(null, "Rick Sanchez", "alive", "männlich", "erde (c-137)", "mensch");
+        CharakterDTO blank = new CharakterDTO(null, " ", "alive", "männlich", "erde (c-137)", "mensch");
+        CharakterDTO tooLong = new CharakterDTO(null, "M".repeat(101), "alive", "männlich", "erde (c-137)", "mensch");
+
+        assertThatThrownBy(() -> charakterService.createCharaktere(List.of(valid, blank)))
+                .isInstanceOf(InvalidCharakterDataException.class)
+                .hasMessageContaining("Position 1");
+        assertThatThrownBy(() -> charakterService.createCharaktere(List.of(valid, valid, tooLong)))
+                .isInstanceOf(InvalidCharakterDataException.class)
+                .hasMessageContaining("Position 2");
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetRandomCharakters_FillsUpWhenDrawsRepeat() {
+        Charakter rick = new Charakter(1L, "Rick Sanchez", "mensch", "männlich", "erde (c-137)", "alive");
+        Charakter morty = new Charakter(2L, "Morty Smith", "mensch", "männlich", "erde (c-137)", "alive");
+        when(charakterRepository.findMinId()).thenReturn(1L);
+        when(charakterRepository.findMaxId()).thenReturn(2L);
+        // jede Ziehung trifft Rick, erst der Keyset-Scan liefert Morty
+        JpaSpecificationExecutor.SpecificationFluentQuery<Charakter> query =
+                mock(JpaSpecificationExecutor.SpecificationFluentQuery.class, RETURNS_SELF);
+        when(query.first()).thenReturn(Optional.of(rick));
+        when(query.all()).thenReturn(List.of(rick, morty));
+        when(charakterRepository.findBy(any(Specification.class), any()))
+                .thenAnswer(invocation -> invocation.<Function<Object, Object>>getArgument(1).apply(query));
+
+        List<CharakterDTO> result = charakterService.getRandomCharakters(2, null, null, null, null);
+
+        assertThat(result).extracting(CharakterDTO::getName).containsExactly("Rick Sanchez", "Morty Smith");
+    }
+
+    @Test
+    public void testDeleteCharakter_NotFound() {
+        when(charakterRepository.removeById(99L)).thenReturn(0);
+
+        assertThatThrownBy(() -> charakterService.deleteCharakter(99L))
+                .isInstanceOf(CharakterNotFoundException.class);
+
+        verify(charakterRepository, never()).findById(any());
+        verify(datenVersion, never()).bump(any());
+        verify(events, never()).publishEvent(any());
+    }
+
 }
@@ -0,0 +1,175 @@
+package com.m295.m295_backend.service;
+
+import com.m295.m295_backend.dto.FavoritDTO;
+import com.m295.m295_backend.entity.DatenVersion.Bereich;
+import com.m295.m295_backend.entity.Favorit;
+import com.m295.m295_backend.repository.FavoritCharakterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FavoritWriteBehindTest {
+
+    @Mock
+    private FavoritCharakterRepository favoritRepository;
+
+    @Mock
+    private DatenVersionService datenVersion;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FavoritWriteBehind writeBehind;
+
+    private FavoritWriteBehind create(int queueCapacity) {
+        // Intervall so gross, dass nur explizit geschrieben wird
+        writeBehind = new FavoritWriteBehind(favoritRepository, datenVersion, events, transactionManager,
+                500, queueCapacity, 3_600_000);
+        return writeBehind;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void testAddThenRemoveBeforeFlushWritesNothing() {
+        create(100);
+        Favorit rick = favorit(1L, "Alive");
+
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(rick, dto(rick), false));
+        writeBehind.enqueue(FavoritWriteBehind.Operation.remove(1L, true));
+        writeBehind.flush();
+
+        assertThat(writeBehind.pending(1L)).isEmpty();
+        verifyNoInteractions(favoritRepository, datenVersion, transactionManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushWritesLastOperationPerCharakterInOneBatch() {
+        create(100);
+        Favorit rickAlive = favorit(1L, "Alive");
+        Favorit rickDead = favorit(1L, "Dead");
+
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(rickAlive, dto(rickAlive), null));
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(rickDead, dto(rickDead), null));
+        writeBehind.enqueue(FavoritWriteBehind.Operation.remove(2L, true));
+        assertThat(writeBehind.pending(1L)).hasValueSatisfying(op -> assertThat(op.favorit()).isSameAs(rickDead));
+
+        writeBehind.flush();
+
+        ArgumentCaptor<Collection<Favorit>> upserts = ArgumentCaptor.forClass(Collection.class);
+        verify(favoritRepository).upsertAll(upserts.capture());
+        assertThat(upserts.getValue()).containsExactly(rickDead);
+        verify(favoritRepository).removeByCharakterIdIn(List.of(2L));
+        verify(datenVersion, times(1)).bump(Bereich.FAVORITEN);
+        verify(events, times(2)).publishEvent(any(AenderungEvent.class));
+        assertThat(writeBehind.pending(1L)).isEmpty();
+    }
+
+    @Test
+    void testFullQueueIsFlushedByCaller() {
+        create(1);
+        Favorit rick = favorit(1L, "Alive");
+        Favorit morty = favorit(2L, "Alive");
+
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(rick, dto(rick), null));
+        verify(favoritRepository, never()).upsertAll(anyCollection());
+
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(morty, dto(morty), null));
+
+        verify(favoritRepository).upsertAll(List.of(rick));
+        assertThat(writeBehind.pending(2L)).isPresent();
+    }
+
+    @Test
+    void testFailedFlushKeepsOperations() {
+        create(100);
+        Favorit rick = favorit(1L, "Alive");
+        doThrow(new DataAccessResourceFailureException("DB weg")).when(favoritRepository).upsertAll(anyCollection());
+
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(rick, dto(rick), null));
+        // Operation bleibt für den nächsten Versuch stehen
+        assertThatThrownBy(writeBehind::flush).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(writeBehind.pending(1L)).isPresent();
+        doNothing().when(favoritRepository).upsertAll(anyCollection());
+    }
+
+    @Test
+    void testFailedBatchIsWrittenOneByOneAndBadOperationIsDropped() {
+        create(100);
+        Favorit rick = favorit(1L, "Alive");
+        Favorit kaputt = favorit(2L, "Alive");
+        doThrow(new DataIntegrityViolationException("name null")).when(favoritRepository)
+                .upsertAll(argThat(favoriten -> favoriten.contains(kaputt)));
+
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(rick, dto(rick), null));
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(kaputt, dto(kaputt), null));
+        writeBehind.flush();
+
+        verify(favoritRepository).upsertAll(List.of(rick));
+        verify(favoritRepository).upsertAll(List.of(kaputt));
+        assertThat(writeBehind.pending(1L)).isEmpty();
+        assertThat(writeBehind.pending(2L)).isEmpty();
+
+        // spätere Flushes sind nicht blockiert
+        Favorit morty = favorit(3L, "Alive");
+        writeBehind.enqueue(FavoritWriteBehind.Operation.upsert(morty, dto(morty), null));
+        writeBehind.flush();
+        verify(favoritRepository).upsertAll(List.of(morty));
+    }
+
+    @Test
+    void testToggleTwiceBeforeFlushCancelsOut() {
+        create(100);
+        Favorit rick = favorit(1L, "Alive");
+        int[] reads = new int[1];
+
+        FavoritWriteBehind.Operation first = writeBehind.toggle(1L, () -> {
+            reads[0]++;
+            return false;
+        }, () -> FavoritWriteBehind.Operation.upsert(rick, dto(rick), false));
+        FavoritWriteBehind.Operation second = writeBehind.toggle(1L, () -> {
+            reads[0]++;
+            return false;
+        }, () -> FavoritWriteBehind.Operation.upsert(rick, dto(rick), false));
+
+        assertThat(first.isRemove()).isFalse();
+        assertThat(second.isRemove()).isTrue();
+        // der zweite Aufruf entscheidet anhand der wartenden Operation, nicht anhand der Datenbank
+        assertThat(reads[0]).isEqualTo(1);
+        assertThat(writeBehind.pending(1L)).isEmpty();
+    }
+
+    private static Favorit favorit(Long charakterId, String status) {
+        return new Favorit(charakterId, "Rick Sanchez", status, "rick.png", "Human", "Male", "Earth");
+    }
+
+    private static FavoritDTO dto(Favorit favorit) {
+        return new FavoritDTO(favorit.getCharakterId(), favorit.getName(), favorit.getStatus(), favorit.getImage(),
+                favorit.getSpecies(), favorit.getGender(), favorit.getOrigin());
+    }
+}